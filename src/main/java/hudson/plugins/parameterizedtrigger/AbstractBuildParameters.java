@@ -1,5 +1,6 @@
 package hudson.plugins.parameterizedtrigger;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import hudson.EnvVars;
 import hudson.ExtensionPoint;
 import hudson.model.AbstractBuild;
@@ -10,6 +11,7 @@ import hudson.model.Queue;
 import hudson.model.Queue.Task;
 import hudson.model.TaskListener;
 import java.io.IOException;
+import java.util.Set;
 
 /**
  * Extension point to produce an {@link Action} to invoke child projects with.
@@ -32,6 +34,17 @@ public abstract class AbstractBuildParameters extends AbstractDescribableImpl<Ab
     public abstract Action getAction(AbstractBuild<?, ?> build, TaskListener listener)
             throws IOException, InterruptedException, DontTriggerException;
 
+    /**
+     * Names of the variables of the upstream build environment {@link #getAction(AbstractBuild, TaskListener)}
+     * expands, so {@link BuildTrigger} only keeps those in the {@link CapturedEnvironmentAction} of the build.
+     *
+     * @return the names, or {@code null} if it may use any variable
+     */
+    @CheckForNull
+    public Set<String> getReferencedVariables() {
+        return null;
+    }
+
     /**
      * Retrieve the build environment from the upstream build
      */
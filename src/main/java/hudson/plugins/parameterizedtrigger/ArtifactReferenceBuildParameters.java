@@ -0,0 +1,84 @@
+package hudson.plugins.parameterizedtrigger;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractBuild;
+import hudson.model.Action;
+import hudson.model.Descriptor;
+import hudson.model.ParametersAction;
+import hudson.model.TaskListener;
+import hudson.util.FormValidation;
+import java.io.IOException;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+
+/**
+ * Passes a reference to artifacts of the triggering build instead of copying them like
+ * {@link BinaryFileParameterFactory} does. Downstream builds read the artifacts from the upstream
+ * {@link jenkins.model.ArtifactManager} only when they need them.
+ *
+ * @see ArtifactReferenceParameterValue
+ */
+public class ArtifactReferenceBuildParameters extends AbstractBuildParameters {
+
+    private static final Pattern VARIABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final String parameterName;
+    private final String artifactPattern;
+
+    @DataBoundConstructor
+    public ArtifactReferenceBuildParameters(String parameterName, String artifactPattern) {
+        this.parameterName = Util.fixEmptyAndTrim(parameterName);
+        this.artifactPattern = artifactPattern;
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    public String getArtifactPattern() {
+        return artifactPattern;
+    }
+
+    @Override
+    public Action getAction(AbstractBuild<?, ?> build, TaskListener listener) throws IOException, InterruptedException {
+        if (parameterName == null) {
+            throw new AbortException(Messages.ArtifactReferenceBuildParameters_NoParameterName());
+        }
+        String pattern = getEnvironment(build, listener).expand(artifactPattern);
+        return new ParametersAction(
+                new ArtifactReferenceParameterValue(parameterName, build.getExternalizableId(), pattern));
+    }
+
+    @Override
+    public Set<String> getReferencedVariables() {
+        return ParameterizedTriggerUtils.getReferencedVariables(artifactPattern);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<AbstractBuildParameters> {
+        @Override
+        public String getDisplayName() {
+            return Messages.ArtifactReferenceBuildParameters_DisplayName();
+        }
+
+        public FormValidation doCheckParameterName(@QueryParameter String value) {
+            String name = Util.fixEmptyAndTrim(value);
+            if (name == null) {
+                return FormValidation.error(Messages.ArtifactReferenceBuildParameters_NoParameterName());
+            }
+            if (!VARIABLE_NAME.matcher(name).matches()) {
+                // NAME_RUN and NAME_URL could not be used from a shell
+                return FormValidation.warning(Messages.ArtifactReferenceBuildParameters_NotAVariableName(name));
+            }
+            return FormValidation.ok();
+        }
+
+        public FormValidation doCheckArtifactPattern(@QueryParameter String value) {
+            return FormValidation.validateRequired(value);
+        }
+    }
+}
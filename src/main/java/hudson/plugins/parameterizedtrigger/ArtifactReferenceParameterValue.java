@@ -0,0 +1,128 @@
+package hudson.plugins.parameterizedtrigger;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.EnvVars;
+import hudson.model.ParameterValue;
+import hudson.model.Run;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import jenkins.model.Jenkins;
+import jenkins.util.VirtualFile;
+
+/**
+ * A reference to artifacts of an upstream build, resolved only when a downstream build opens them.
+ *
+ * <p>
+ * Contributes the following variables to the downstream build:
+ * <ul>
+ * <li>{@code NAME}: the artifact pattern</li>
+ * <li>{@code NAME_RUN}: the externalizable id of the upstream build, see {@link Run#fromExternalizableId(String)}</li>
+ * <li>{@code NAME_URL}: URL of the artifacts of the upstream build, when the root URL is configured</li>
+ * </ul>
+ *
+ * @see ArtifactReferenceBuildParameters
+ */
+public class ArtifactReferenceParameterValue extends ParameterValue {
+    private static final long serialVersionUID = 1L;
+
+    private final String upstreamRun;
+    private final String artifactPattern;
+
+    public ArtifactReferenceParameterValue(String name, String upstreamRun, String artifactPattern) {
+        super(name);
+        this.upstreamRun = upstreamRun;
+        this.artifactPattern = artifactPattern;
+    }
+
+    /**
+     * @return externalizable id of the build the artifacts belong to
+     */
+    public String getUpstreamRun() {
+        return upstreamRun;
+    }
+
+    public String getArtifactPattern() {
+        return artifactPattern;
+    }
+
+    @Override
+    public Object getValue() {
+        return upstreamRun + "!" + artifactPattern;
+    }
+
+    /**
+     * @return the upstream build, or null if it was deleted or cannot be read
+     */
+    @CheckForNull
+    public Run<?, ?> getRun() {
+        return Run.fromExternalizableId(upstreamRun);
+    }
+
+    /**
+     * Lists the upstream artifacts matching the pattern. Only the artifact listing is read.
+     *
+     * @return matching artifacts, relative to the artifact root
+     */
+    @NonNull
+    public List<String> getArtifactPaths() throws IOException {
+        VirtualFile root = getArtifactRoot();
+        Collection<String> paths = root.list(artifactPattern, null, true);
+        return new ArrayList<>(paths);
+    }
+
+    /**
+     * Opens a stream on a single upstream artifact, through the artifact manager of the upstream build.
+     *
+     * @param path artifact path relative to the artifact root
+     * @return content of the artifact
+     */
+    @NonNull
+    public InputStream open(@NonNull String path) throws IOException {
+        return getArtifactRoot().child(path).open();
+    }
+
+    private VirtualFile getArtifactRoot() throws IOException {
+        Run<?, ?> run = getRun();
+        if (run == null) {
+            throw new IOException("Upstream build " + upstreamRun + " does not exist or cannot be read");
+        }
+        return run.getArtifactManager().root();
+    }
+
+    @Override
+    public void buildEnv(Run<?, ?> build, EnvVars env) {
+        String prefix = name.toUpperCase(Locale.ENGLISH);
+        env.put(name, artifactPattern);
+        env.put(prefix, artifactPattern);
+        env.put(prefix + "_RUN", upstreamRun);
+        String rootUrl = Jenkins.get().getRootUrl();
+        Run<?, ?> run = rootUrl != null ? getRun() : null;
+        if (run != null) {
+            env.put(prefix + "_URL", rootUrl + run.getUrl() + "artifact/");
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!super.equals(obj)) {
+            return false;
+        }
+        ArtifactReferenceParameterValue that = (ArtifactReferenceParameterValue) obj;
+        return upstreamRun.equals(that.upstreamRun) && artifactPattern.equals(that.artifactPattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * super.hashCode() + upstreamRun.hashCode()) + artifactPattern.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "(ArtifactReferenceParameterValue) " + getName() + "='" + getValue() + "'";
+    }
+}
@@ -1,20 +1,53 @@
 package hudson.plugins.parameterizedtrigger;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Extension;
 import hudson.FilePath;
+import hudson.Util;
 import hudson.model.AbstractBuild;
 import hudson.model.Action;
 import hudson.model.FileParameterValue;
 import hudson.model.ParametersAction;
 import hudson.model.TaskListener;
 import hudson.plugins.parameterizedtrigger.FileBuildParameterFactory.NoFilesFoundEnum;
+import hudson.remoting.Pipe;
+import hudson.remoting.VirtualChannel;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.util.SystemProperties;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.tools.ant.Project;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 /**
@@ -62,13 +95,16 @@ public class BinaryFileParameterFactory extends AbstractBuildParameterFactory {
             // save them into the master because FileParameterValue might need files after the agent workspace have
             // disappeared/reused
             FilePath target = new FilePath(build.getRootDir()).child("parameter-files");
-            int n = workspace.copyRecursiveTo(getFilePattern(), target);
+            Map<FilePath, String> files = copyToController(workspace, target);
 
-            if (n == 0) {
+            if (files.isEmpty()) {
                 noFilesFoundAction.failCheck(listener);
             } else {
-                for (final FilePath f : target.list(getFilePattern())) {
+                for (final Map.Entry<FilePath, String> file : files.entrySet()) {
+                    final FilePath f = file.getKey();
+                    final String digest = file.getValue();
                     LOGGER.fine("Triggering build with " + f.getName());
+                    final File blob = FileParameterStore.ENABLED ? store(build, new File(f.getRemote()), digest) : null;
 
                     result.add(new AbstractBuildParameters() {
                         @Override
@@ -76,8 +112,10 @@ public class BinaryFileParameterFactory extends AbstractBuildParameterFactory {
                                 throws IOException, InterruptedException, DontTriggerException {
                             assert f.getChannel()
                                     == null; // we copied files locally. This file must be local to the master
-                            FileParameterValue fv =
-                                    new FileParameterValue(parameterName, new File(f.getRemote()), f.getName());
+                            File file = new File(f.getRemote());
+                            FileParameterValue fv = blob != null
+                                    ? new StoredFileParameterValue(parameterName, file, f.getName(), digest)
+                                    : new FileParameterValue(parameterName, file, f.getName());
 
                             if ($setLocation != null) {
                                 try {
@@ -98,6 +136,202 @@ public class BinaryFileParameterFactory extends AbstractBuildParameterFactory {
         return result;
     }
 
+    /**
+     * Copies the files matching {@link #getFilePattern()} from the workspace into {@code target}.
+     *
+     * When the workspace is on the controller the files are copied (or hard linked, see {@link #LINK_LOCAL_FILES})
+     * directly. Otherwise they are streamed as a single compressed tar, and the SHA-256 digests computed on the agent
+     * while archiving are checked against the digests of the extracted files.
+     *
+     * @return the copied files with the SHA-256 of their content, in the order they were found
+     */
+    private Map<FilePath, String> copyToController(FilePath workspace, FilePath target)
+            throws IOException, InterruptedException {
+        File targetDir = new File(target.getRemote());
+        Map<FilePath, String> files = new LinkedHashMap<>();
+        MessageDigest md = sha256();
+        if (!workspace.isRemote()) {
+            File dir = new File(workspace.getRemote());
+            for (String relative : scan(dir, getFilePattern())) {
+                Path source = new File(dir, relative).toPath();
+                Path dest = resolve(targetDir, relative);
+                Files.createDirectories(dest.getParent());
+                Files.deleteIfExists(dest);
+                md.reset();
+                if (LINK_LOCAL_FILES && link(source, dest)) {
+                    try (InputStream in = new DigestInputStream(Files.newInputStream(source), md)) {
+                        IOUtils.consume(in);
+                    }
+                } else {
+                    try (InputStream in = new DigestInputStream(Files.newInputStream(source), md)) {
+                        Files.copy(in, dest);
+                    }
+                    Files.setLastModifiedTime(dest, Files.getLastModifiedTime(source));
+                }
+                files.put(new FilePath(dest.toFile()), Util.toHexString(md.digest()));
+            }
+            return files;
+        }
+
+        Pipe pipe = Pipe.createRemoteToLocal();
+        Future<Map<String, String>> future = workspace.actAsync(new TarWithDigests(getFilePattern(), pipe));
+        Map<String, String> digests = new LinkedHashMap<>();
+        try (TarArchiveInputStream tar =
+                new TarArchiveInputStream(new GZIPInputStream(new BufferedInputStream(pipe.getIn())))) {
+            TarArchiveEntry entry;
+            while ((entry = tar.getNextTarEntry()) != null) {
+                if (!entry.isFile()) {
+                    continue;
+                }
+                Path dest = resolve(targetDir, entry.getName());
+                Files.createDirectories(dest.getParent());
+                md.reset();
+                try (OutputStream out = new DigestOutputStream(Files.newOutputStream(dest), md)) {
+                    IOUtils.copy(tar, out);
+                }
+                Files.setLastModifiedTime(dest, FileTime.from(entry.getModTime().toInstant()));
+                String digest = Util.toHexString(md.digest());
+                digests.put(entry.getName(), digest);
+                files.put(new FilePath(dest.toFile()), digest);
+            }
+        } catch (IOException e) {
+            // the pipe is closed by now, so the agent cannot write any further; prefer reporting the failure on the
+            // agent side, if any
+            IOException agentFailure = getAgentFailure(future);
+            if (agentFailure != null) {
+                agentFailure.addSuppressed(e);
+                throw agentFailure;
+            }
+            throw e;
+        }
+
+        Map<String, String> expected;
+        try {
+            expected = future.get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        if (!expected.equals(digests)) {
+            throw new IOException("Checksum mismatch while copying " + getFilePattern() + " from " + workspace);
+        }
+        return files;
+    }
+
+    /**
+     * Puts a copied file into the {@link FileParameterStore}, replacing it by a link to the stored content.
+     *
+     * @return the stored content, or null if the file could not be stored
+     */
+    private static File store(AbstractBuild<?, ?> build, File file, String digest) {
+        try {
+            File blob = FileParameterStore.get().put(file, digest, build);
+            FileParameterStore.link(blob.toPath(), file.toPath());
+            FileParameterStore.StoredFilesAction action = build.getAction(FileParameterStore.StoredFilesAction.class);
+            if (action == null) {
+                action = new FileParameterStore.StoredFilesAction();
+                build.addAction(action);
+            }
+            action.add(digest);
+            return blob;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to store " + file + ", downstream builds will copy it", e);
+            return null;
+        }
+    }
+
+    /**
+     * Waits for the agent once the controller stopped reading what it sends, without waiting forever for an agent
+     * that does not notice.
+     *
+     * @return the failure on the agent side, if any
+     */
+    private static IOException getAgentFailure(Future<?> future) throws InterruptedException {
+        try {
+            future.get(AGENT_TIMEOUT, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return new IOException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return null;
+        }
+    }
+
+    private static boolean link(Path source, Path dest) {
+        try {
+            Files.createLink(dest, source);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            // different file systems or no hard link support, fall back to copying
+            LOGGER.log(Level.FINE, "Failed to link " + source + " to " + dest, e);
+            return false;
+        }
+    }
+
+    private static Path resolve(File dir, String relative) throws IOException {
+        Path base = dir.toPath().toAbsolutePath().normalize();
+        Path p = base.resolve(relative).normalize();
+        if (!p.startsWith(base) || p.equals(base)) {
+            throw new IOException("Refusing to write " + relative + " outside of " + dir);
+        }
+        return p;
+    }
+
+    private static String[] scan(File dir, String includes) {
+        if (!dir.isDirectory()) {
+            return new String[0];
+        }
+        return Util.createFileSet(dir, includes).getDirectoryScanner(new Project()).getIncludedFiles();
+    }
+
+    private static MessageDigest sha256() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Writes the matching files of a workspace into a pipe as a gzipped tar, computing their digests on the way.
+     */
+    private static final class TarWithDigests extends MasterToSlaveFileCallable<Map<String, String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final String includes;
+        private final Pipe pipe;
+
+        TarWithDigests(String includes, Pipe pipe) {
+            this.includes = includes;
+            this.pipe = pipe;
+        }
+
+        @Override
+        public Map<String, String> invoke(File dir, VirtualChannel channel) throws IOException {
+            Map<String, String> digests = new LinkedHashMap<>();
+            // closed even if nothing could be written, so the controller never waits for more
+            try (OutputStream out = pipe.getOut();
+                    TarArchiveOutputStream tar =
+                            new TarArchiveOutputStream(new GZIPOutputStream(new BufferedOutputStream(out)))) {
+                MessageDigest md = sha256();
+                tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+                tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+                for (String relative : scan(dir, includes)) {
+                    String name = relative.replace('\\', '/');
+                    File f = new File(dir, relative);
+                    tar.putArchiveEntry(new TarArchiveEntry(f, name));
+                    md.reset();
+                    try (InputStream in = new DigestInputStream(Files.newInputStream(f.toPath()), md)) {
+                        IOUtils.copy(in, tar);
+                    }
+                    tar.closeArchiveEntry();
+                    digests.put(name, Util.toHexString(md.digest()));
+                }
+            }
+            return digests;
+        }
+    }
+
     @Extension
     public static class DescriptorImpl extends AbstractBuildParameterFactoryDescriptor {
         @Override
@@ -106,6 +340,20 @@ public class BinaryFileParameterFactory extends AbstractBuildParameterFactory {
         }
     }
 
+    /**
+     * Whether files of a workspace on the controller are hard linked into the build directory instead of copied.
+     * Off by default, because a build that later rewrites such a file in place would also change the parameter.
+     */
+    @Restricted(NoExternalUse.class)
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Can be changed from the script console")
+    public static boolean LINK_LOCAL_FILES =
+            SystemProperties.getBoolean(BinaryFileParameterFactory.class.getName() + ".linkLocalFiles");
+
+    /**
+     * Seconds to wait for the agent to stop sending files once the controller failed to extract them.
+     */
+    private static final long AGENT_TIMEOUT = 60;
+
     private static Method $setLocation;
 
     static {
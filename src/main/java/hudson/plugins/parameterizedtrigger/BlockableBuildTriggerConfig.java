@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.List;
 import jenkins.model.Jenkins;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 /**
  * {@link BuildTriggerConfig} that supports blocking of the execution.
@@ -27,6 +28,11 @@ import org.kohsuke.stapler.DataBoundConstructor;
  */
 public class BlockableBuildTriggerConfig extends BuildTriggerConfig {
     private final BlockingBehaviour block;
+    /**
+     * Whether a triggered build waits for an identical build already in the queue, with the same project, parameters
+     * and other queue actions, instead of being queued once more.
+     */
+    private boolean reuseQueuedBuild;
     // Field is unused, but would change public API if it were deleted
     @SuppressFBWarnings(value = "UUF_UNUSED_PUBLIC_OR_PROTECTED_FIELD", justification = "Part of the public API")
     public boolean buildAllNodesWithLabel;
@@ -51,6 +57,15 @@ public class BlockableBuildTriggerConfig extends BuildTriggerConfig {
         return block;
     }
 
+    public boolean isReuseQueuedBuild() {
+        return reuseQueuedBuild;
+    }
+
+    @DataBoundSetter
+    public void setReuseQueuedBuild(boolean reuseQueuedBuild) {
+        this.reuseQueuedBuild = reuseQueuedBuild;
+    }
+
     @Override
     public List<QueueTaskFuture<AbstractBuild>> perform(
             AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
@@ -83,11 +98,12 @@ public class BlockableBuildTriggerConfig extends BuildTriggerConfig {
     protected QueueTaskFuture schedule(AbstractBuild<?, ?> build, Job project, List<Action> list, TaskListener listener)
             throws InterruptedException, IOException {
         if (block != null) {
-            while (true) {
+            if (!reuseQueuedBuild) {
                 // add DifferentiatingAction to make sure this doesn't get merged with something else,
                 // which is most likely unintended. Might make sense to do it at BuildTriggerConfig for all.
                 list = CollectionUtils.immutableList(list, new DifferentiatingAction());
-
+            }
+            while (true) {
                 // if we fail to add the item to the queue, wait and retry.
                 // it also means we have to force quiet period = 0, or else it'll never leave the queue
                 QueueTaskFuture f = schedule(build, project, 0, list, listener);
@@ -32,7 +32,9 @@ import hudson.model.ParameterValue;
 import hudson.model.ParametersAction;
 import hudson.model.TaskListener;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.kohsuke.stapler.DataBoundConstructor;
 
@@ -60,6 +62,11 @@ public class BooleanParameters extends AbstractBuildParameters {
         return new ParametersAction(values);
     }
 
+    @Override
+    public Set<String> getReferencedVariables() {
+        return Collections.emptySet();
+    }
+
     public List<BooleanParameterConfig> getConfigs() {
         return configs;
     }
@@ -25,17 +25,32 @@
  */
 package hudson.plugins.parameterizedtrigger;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.EnvVars;
+import hudson.FilePath;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
 import hudson.model.EnvironmentContributingAction;
 import hudson.model.Result;
+import hudson.slaves.WorkspaceList;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import net.sf.json.JSONObject;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
 import org.kohsuke.stapler.export.Exported;
 import org.kohsuke.stapler.export.ExportedBean;
 
@@ -49,23 +64,119 @@ public class BuildInfoExporterAction implements EnvironmentContributingAction {
     public static final String BUILD_RESULT_VARIABLE_PREFIX = "TRIGGERED_BUILD_RESULT_";
     public static final String BUILD_RUN_COUNT_PREFIX = "TRIGGERED_BUILD_RUN_COUNT_";
     public static final String RUN = "_RUN_";
+    public static final String FILE_VARIABLE = "TRIGGERED_BUILDS_FILE";
+    public static final String BUILD_COUNT_VARIABLE = "TRIGGERED_BUILD_COUNT";
+    public static final String BUILD_COUNT_VARIABLE_PREFIX = "TRIGGERED_BUILD_COUNT_";
+
+    /**
+     * Name of the file listing the triggered builds, one JSON object per line, in the build directory and next to the
+     * workspace.
+     */
+    public static final String FILE_NAME = "triggered-builds.jsonl";
+
+    /**
+     * Set to {@code true} to export triggered builds in {@link #FILE_NAME} instead of one variable per triggered build,
+     * which can make the environment too large to launch processes.
+     */
+    @Restricted(NoExternalUse.class)
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Can be changed from the script console")
+    public static boolean EXPORT_FILE =
+            SystemProperties.getBoolean(BuildInfoExporterAction.class.getName() + ".exportFile");
+
+    private static final Result[] RESULTS = {
+        Result.SUCCESS, Result.UNSTABLE, Result.FAILURE, Result.NOT_BUILT, Result.ABORTED
+    };
+
+    /**
+     * Number of triggered builds and projects shown on the build page before the user asks for more.
+     */
+    private static final int PAGE_SIZE =
+            SystemProperties.getInteger(BuildInfoExporterAction.class.getName() + ".pageSize", 50);
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-zA-Z0-9]+");
+
+    /**
+     * Held by triggers recording into a build to look up and add the action, so only one of them adds it. Shared by
+     * all builds rather than locking the build, which core and other plugins lock for their own purposes.
+     */
+    private static final Object ADD_LOCK = new Object();
+
     // now unused as part of map
     private transient String buildName;
     private transient int buildNumber;
 
     // used in version =< 2.21.
-    // this is now migrated to this.builds.
+    // this is now migrated to the compact form below.
     private transient Map<String, List<BuildReference>> buildRefs;
 
-    private List<BuildReference> builds;
-    private BuildReference lastReference;
+    // persisted as a list up to the compact form below.
+    // this is now migrated to the compact form when loading.
+    private transient List<BuildReference> builds;
+
+    private volatile BuildReference lastReference;
+
+    /**
+     * Distinct names of the triggered projects, so each of them is saved and kept in memory once.
+     */
+    private String[] projectNames;
+
+    /**
+     * For each reference, the index of its project in {@link #projectNames}.
+     */
+    private int[] projects;
+
+    /**
+     * For each reference, its build number.
+     */
+    private int[] buildNumbers;
+
+    /**
+     * For each reference, its result as in {@link #toOrdinal(Result)}.
+     */
+    private byte[] results;
+
+    /**
+     * Number of references. The arrays above grow geometrically and have room for more. Guarded by this action, as
+     * are the arrays, whose elements below {@link #size} are never written again.
+     */
+    private int size;
+
+    /**
+     * Index of each name in {@link #projectNames}.
+     */
+    private transient Map<String, Integer> projectIndexes;
+
+    /**
+     * Positions of the references grouped by project, rebuilt on demand after {@link #addBuild(BuildReference)}.
+     * Guarded by this action.
+     */
+    private transient Map<String, ProjectBuilds> index;
+
+    /**
+     * Variables contributed by {@link #buildEnvVars(AbstractBuild, EnvVars)}, computed again after
+     * {@link #addBuild(BuildReference)} or once {@link #EXPORT_FILE} changes. Guarded by this action.
+     */
+    private transient Map<String, String> variables;
+
+    /**
+     * Value of {@link #EXPORT_FILE} {@link #variables} were computed with. Guarded by this action.
+     */
+    private transient boolean variablesExportFile;
+
+    /**
+     * Path of {@link #FILE_NAME} next to the workspace, once {@link #exportFile(AbstractBuild)} wrote it.
+     */
+    private transient volatile String exportedFile;
 
     public BuildInfoExporterAction(BuildReference buildRef) {
         super();
 
-        this.builds = new ArrayList<>();
-        addBuild(buildRef);
-        lastReference = buildRef;
+        this.projectNames = new String[1];
+        this.projects = new int[1];
+        this.buildNumbers = new int[1];
+        this.results = new byte[1];
+        this.projectIndexes = new HashMap<>();
+        lastReference = append(buildRef);
     }
 
     public BuildInfoExporterAction(
@@ -73,38 +184,104 @@ public class BuildInfoExporterAction implements EnvironmentContributingAction {
         this(new BuildReference(buildName, buildNumber, buildResult));
     }
 
+    /**
+     * Copies the references in use of {@code action}, which the caller has locked.
+     */
+    private BuildInfoExporterAction(BuildInfoExporterAction action) {
+        this.lastReference = action.lastReference;
+        this.projectNames = Arrays.copyOf(action.projectNames, action.projectIndexes.size());
+        this.projects = Arrays.copyOf(action.projects, action.size);
+        this.buildNumbers = Arrays.copyOf(action.buildNumbers, action.size);
+        this.results = Arrays.copyOf(action.results, action.size);
+        this.size = action.size;
+    }
+
     static BuildInfoExporterAction addBuildInfoExporterAction(
             AbstractBuild<?, ?> parentBuild, String triggeredProject, int buildNumber, Result buildResult) {
-        BuildInfoExporterAction action = parentBuild.getAction(BuildInfoExporterAction.class);
-        if (action == null) {
-            action = new BuildInfoExporterAction(triggeredProject, buildNumber, parentBuild, buildResult);
-            parentBuild.addAction(action);
-        } else {
-            action.addBuildReference(triggeredProject, buildNumber, buildResult);
-        }
-        return action;
+        return addBuildInfoExporterAction(parentBuild, new BuildReference(triggeredProject, buildNumber, buildResult));
     }
 
     static BuildInfoExporterAction addBuildInfoExporterAction(
             AbstractBuild<?, ?> parentBuild, String triggeredProject) {
-        BuildInfoExporterAction action = parentBuild.getAction(BuildInfoExporterAction.class);
-        if (action == null) {
-            action = new BuildInfoExporterAction(new BuildReference(triggeredProject));
-            parentBuild.addAction(action);
-        } else {
-            action.addBuildReference(new BuildReference(triggeredProject));
+        return addBuildInfoExporterAction(parentBuild, new BuildReference(triggeredProject));
+    }
+
+    private static BuildInfoExporterAction addBuildInfoExporterAction(
+            AbstractBuild<?, ?> parentBuild, BuildReference buildRef) {
+        BuildInfoExporterAction action;
+        // several triggers may record into the same build at once, only one of them must add the action
+        synchronized (ADD_LOCK) {
+            action = parentBuild.getAction(BuildInfoExporterAction.class);
+            if (action == null) {
+                action = new BuildInfoExporterAction(buildRef);
+                parentBuild.addAction(action);
+                return action;
+            }
         }
+        action.addBuildReference(buildRef);
         return action;
     }
 
-    private void addBuild(BuildReference br) {
-        this.builds.add(br);
+    private synchronized void addBuild(BuildReference br) {
+        br = append(br);
+        this.index = null;
+        this.variables = null;
 
         if (br.buildNumber != 0) {
             this.lastReference = br;
         }
     }
 
+    /**
+     * Records a reference in the compact form, growing the arrays by half when they are full.
+     *
+     * @return {@code br}, or an equal reference sharing the project name already known
+     */
+    private BuildReference append(BuildReference br) {
+        Integer project = projectIndexes.get(br.projectName);
+        if (project == null) {
+            project = projectIndexes.size();
+            if (project == projectNames.length) {
+                projectNames = Arrays.copyOf(projectNames, grow(project));
+            }
+            projectNames[project] = br.projectName;
+            projectIndexes.put(br.projectName, project);
+        }
+        if (size == projects.length) {
+            int capacity = grow(size);
+            projects = Arrays.copyOf(projects, capacity);
+            buildNumbers = Arrays.copyOf(buildNumbers, capacity);
+            results = Arrays.copyOf(results, capacity);
+        }
+        projects[size] = project;
+        buildNumbers[size] = br.buildNumber;
+        results[size] = toOrdinal(br.buildResult);
+        size++;
+
+        String name = projectNames[project];
+        return name == br.projectName ? br : new BuildReference(name, br.buildNumber, br.buildResult);
+    }
+
+    private static int grow(int capacity) {
+        return capacity + Math.max(capacity >> 1, 1);
+    }
+
+    /**
+     * @return the ordinal of {@code result}, or -1 if there is none
+     */
+    private static byte toOrdinal(Result result) {
+        return result != null ? (byte) result.ordinal : -1;
+    }
+
+    private static Result toResult(byte ordinal) {
+        for (Result result : RESULTS) {
+            if (result.ordinal == ordinal) {
+                return result;
+            }
+        }
+        return null;
+    }
+
     public void addBuildReference(String triggeredProject, int buildNumber, Result buildResult) {
         BuildReference buildRef = new BuildReference(triggeredProject, buildNumber, buildResult);
         addBuild(buildRef);
@@ -114,10 +291,16 @@ public class BuildInfoExporterAction implements EnvironmentContributingAction {
         addBuild(buildRef);
     }
 
+    @ExportedBean(defaultVisibility = 2)
     public static class BuildReference {
 
+        @Exported
         public final String projectName;
+
+        @Exported
         public final int buildNumber;
+
+        @Exported
         public final Result buildResult;
 
         public BuildReference(String projectName, int buildNumber, Result buildResult) {
@@ -133,6 +316,42 @@ public class BuildInfoExporterAction implements EnvironmentContributingAction {
         }
     }
 
+    /**
+     * The references recorded when it was taken. Appending never writes the elements it covers, so it can be read
+     * without holding the lock of the action.
+     */
+    private static final class Refs {
+        final String[] projectNames;
+        final int[] projects;
+        final int[] buildNumbers;
+        final byte[] results;
+        final int size;
+
+        Refs(BuildInfoExporterAction action) {
+            this.projectNames = action.projectNames;
+            this.projects = action.projects;
+            this.buildNumbers = action.buildNumbers;
+            this.results = action.results;
+            this.size = action.size;
+        }
+
+        String projectName(int i) {
+            return projectNames[projects[i]];
+        }
+
+        Result result(int i) {
+            return toResult(results[i]);
+        }
+
+        BuildReference get(int i) {
+            return new BuildReference(projectName(i), buildNumbers[i], result(i));
+        }
+    }
+
+    private synchronized Refs refs() {
+        return new Refs(this);
+    }
+
     @Override
     public String getIconFileName() {
         return null;
@@ -143,102 +362,344 @@ public class BuildInfoExporterAction implements EnvironmentContributingAction {
         return null;
     }
 
+    /**
+     * Not shown in the side panel, only there for views to fetch further pages.
+     */
     @Override
     public String getUrlName() {
-        return null;
+        return "triggeredBuilds";
     }
 
     @Override
     public void buildEnvVars(AbstractBuild<?, ?> build, EnvVars env) {
+        boolean exportFile = EXPORT_FILE;
+        Map<String, String> variables;
+        synchronized (this) {
+            variables = this.variables;
+            if (variables == null || variablesExportFile != exportFile) {
+                variables = computeVariables(exportFile);
+                this.variables = variables;
+                this.variablesExportFile = exportFile;
+            }
+        }
+        env.putAll(variables);
+
+        // the workspace may be used by another build once this one is done
+        String file = exportedFile;
+        if (exportFile && file != null && build != null && build.isBuilding()) {
+            env.put(FILE_VARIABLE, file);
+        }
+    }
+
+    /**
+     * Writes {@link #FILE_NAME} listing the builds triggered so far to the build directory and next to the workspace,
+     * if {@link #EXPORT_FILE} is set. Called by the build step that triggered them, while it has the workspace.
+     */
+    static void exportFile(AbstractBuild<?, ?> build) throws IOException, InterruptedException {
+        if (!EXPORT_FILE) {
+            return;
+        }
+        BuildInfoExporterAction action = build.getAction(BuildInfoExporterAction.class);
+        if (action == null) {
+            return;
+        }
+        String content = action.toJsonLines();
+        Files.write(new File(build.getRootDir(), FILE_NAME).toPath(), content.getBytes(StandardCharsets.UTF_8));
+        FilePath workspace = build.getWorkspace();
+        FilePath tempDir = workspace != null ? WorkspaceList.tempDir(workspace) : null;
+        if (tempDir != null) {
+            FilePath file = tempDir.child(FILE_NAME);
+            tempDir.mkdirs();
+            file.write(content, StandardCharsets.UTF_8.name());
+            action.exportedFile = file.getRemote();
+        }
+    }
+
+    /**
+     * @return the references recorded so far, one JSON object per line
+     */
+    private String toJsonLines() {
+        Refs refs = refs();
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < refs.size; i++) {
+            JSONObject line = new JSONObject();
+            line.put("project", refs.projectName(i));
+            line.put("number", refs.buildNumbers[i]);
+            Result result = refs.result(i);
+            if (result != null) {
+                line.put("result", result.toString());
+            }
+            buf.append(line).append('\n');
+        }
+        return buf.toString();
+    }
+
+    /**
+     * @param exportFile whether the builds are listed in {@link #FILE_NAME} rather than in variables
+     * @return the variables contributed by this action, computed from the references recorded so far
+     */
+    private Map<String, String> computeVariables(boolean exportFile) {
+        Map<String, String> variables = new HashMap<>();
+        Refs refs = refs();
 
         // Note: this will only indicate the last project in the list that is ran
-        env.put(JOB_NAME_VARIABLE, lastReference.projectName.replaceAll("[^a-zA-Z0-9]+", "_"));
+        variables.put(JOB_NAME_VARIABLE, sanitize(lastReference.projectName));
         // all projects triggered.
         // this should not include projects that don't have a build item.
         String sanitizedProjectList = getProjectListString(",");
-        env.put(ALL_JOBS_NAME_VARIABLE, sanitizedProjectList);
+        variables.put(ALL_JOBS_NAME_VARIABLE, sanitizedProjectList);
 
+        Map<String, ProjectBuilds> index = getIndex();
         for (String project : getProjectsWithBuilds()) {
             // for each project add the following variables once
             // all buildnumbers, lastbuildnumber
             // all Run results, last build result
-            String sanitizedBuildName = project.replaceAll("[^a-zA-Z0-9]+", "_");
-            List<BuildReference> refs = getBuildRefs(project);
-
-            env.put(ALL_BUILD_NUMBER_VARIABLE_PREFIX + sanitizedBuildName, getBuildNumbersString(refs, ","));
-            env.put(BUILD_RUN_COUNT_PREFIX + sanitizedBuildName, Integer.toString(refs.size()));
-            for (BuildReference br : refs) {
-                if (br.buildNumber != 0) {
-                    String triggeredBuildRunResultKey =
-                            BUILD_RESULT_VARIABLE_PREFIX + sanitizedBuildName + RUN + Integer.toString(br.buildNumber);
-                    env.put(triggeredBuildRunResultKey, br.buildResult.toString());
+            ProjectBuilds projectBuilds = index.get(project);
+            String sanitizedBuildName = projectBuilds.sanitizedName;
+
+            variables.put(BUILD_RUN_COUNT_PREFIX + sanitizedBuildName, Integer.toString(projectBuilds.count));
+            // with EXPORT_FILE, every build is listed in the file instead
+            if (!exportFile) {
+                variables.put(
+                        ALL_BUILD_NUMBER_VARIABLE_PREFIX + sanitizedBuildName,
+                        getBuildNumbersString(refs, projectBuilds, ","));
+                for (int k = 0; k < projectBuilds.count; k++) {
+                    int i = projectBuilds.positions[k];
+                    if (refs.buildNumbers[i] != 0) {
+                        String triggeredBuildRunResultKey = BUILD_RESULT_VARIABLE_PREFIX + sanitizedBuildName + RUN
+                                + Integer.toString(refs.buildNumbers[i]);
+                        variables.put(triggeredBuildRunResultKey, refs.result(i).toString());
+                    }
                 }
             }
-            BuildReference lastBuild = null;
-            for (int i = (refs.size()); i > 0; i--) {
-                if (refs.get(i - 1).buildNumber != 0) {
-                    lastBuild = refs.get(i - 1);
+            int lastBuild = projectBuilds.positions[projectBuilds.count - 1];
+            if (refs.buildNumbers[lastBuild] != 0) {
+                variables.put(
+                        BUILD_NUMBER_VARIABLE_PREFIX + sanitizedBuildName,
+                        Integer.toString(refs.buildNumbers[lastBuild]));
+                variables.put(
+                        BUILD_RESULT_VARIABLE_PREFIX + sanitizedBuildName,
+                        refs.result(lastBuild).toString());
+            }
+        }
+
+        if (exportFile) {
+            putCounts(refs, variables);
+        }
+        return Collections.unmodifiableMap(variables);
+    }
+
+    /**
+     * Adds the number of triggered builds, in total and for each result.
+     */
+    private static void putCounts(Refs refs, Map<String, String> variables) {
+        int total = 0;
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < refs.size; i++) {
+            if (refs.buildNumbers[i] != 0) {
+                total++;
+                Result result = refs.result(i);
+                if (result != null) {
+                    counts.merge(result.toString(), 1, Integer::sum);
                 }
-                break;
             }
-            if (lastBuild != null) {
-                env.put(BUILD_NUMBER_VARIABLE_PREFIX + sanitizedBuildName, Integer.toString(lastBuild.buildNumber));
-                env.put(BUILD_RESULT_VARIABLE_PREFIX + sanitizedBuildName, lastBuild.buildResult.toString());
+        }
+        variables.put(BUILD_COUNT_VARIABLE, Integer.toString(total));
+        for (Result result : RESULTS) {
+            Integer count = counts.get(result.toString());
+            variables.put(BUILD_COUNT_VARIABLE_PREFIX + result, Integer.toString(count != null ? count : 0));
+        }
+    }
+
+    /**
+     * @return positions of the references grouped by project name, in the order they were added
+     */
+    private synchronized Map<String, ProjectBuilds> getIndex() {
+        Map<String, ProjectBuilds> index = this.index;
+        if (index == null) {
+            index = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                String projectName = projectNames[projects[i]];
+                ProjectBuilds projectBuilds = index.get(projectName);
+                if (projectBuilds == null) {
+                    projectBuilds = new ProjectBuilds(projectName);
+                    index.put(projectName, projectBuilds);
+                }
+                projectBuilds.add(i, buildNumbers[i]);
             }
+            this.index = index;
         }
+        return index;
+    }
+
+    /**
+     * @return the name with every run of non alphanumeric characters replaced by an underscore
+     */
+    private String sanitize(String projectName) {
+        ProjectBuilds projectBuilds = getIndex().get(projectName);
+        return projectBuilds != null ? projectBuilds.sanitizedName : sanitizeName(projectName);
+    }
+
+    private static String sanitizeName(String projectName) {
+        return NON_ALPHANUMERIC.matcher(projectName).replaceAll("_");
     }
 
-    private List<BuildReference> getBuildRefs(String project) {
-        List<BuildReference> refs = new ArrayList<>();
-        for (BuildReference br : builds) {
-            if (br.projectName.equals(project)) refs.add(br);
+    /**
+     * Positions of the references to one project, with the name used in variable names.
+     */
+    private static final class ProjectBuilds {
+        final String sanitizedName;
+        int[] positions = new int[1];
+        int count;
+        boolean hasBuilds;
+
+        ProjectBuilds(String projectName) {
+            this.sanitizedName = sanitizeName(projectName);
+        }
+
+        void add(int position, int buildNumber) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, grow(count));
+            }
+            positions[count++] = position;
+            hasBuilds |= buildNumber != 0;
         }
-        return refs;
     }
 
     /**
      * Gets all the builds triggered from this one, filters out the items that
-     * were non blocking, which we don't have a builds for. Used in the UI for see
-     * Summary.groovy
+     * were non blocking, which we don't have a builds for. Loads every triggered build,
+     * see {@link #getTriggeredBuilds(int, int)} for views.
      *
      * @return a list of builds that are triggered by this build. May contains null if a project or a build is deleted.
      */
     @Exported(visibility = 1)
     public List<AbstractBuild<?, ?>> getTriggeredBuilds() {
+        return getTriggeredBuilds(0, Integer.MAX_VALUE);
+    }
 
+    /**
+     * Gets a page of the builds triggered from this one, loading only those builds.
+     * Used in the UI for see summary.groovy
+     *
+     * @param start index of the first build to return, in the order they were triggered
+     * @param count maximum number of builds to return
+     * @return builds triggered by this build. May contains null if a project or a build is deleted.
+     */
+    public List<AbstractBuild<?, ?>> getTriggeredBuilds(int start, int count) {
         List<AbstractBuild<?, ?>> builds = new ArrayList<>();
+        Refs refs = refs();
 
-        for (BuildReference br : this.builds) {
-            AbstractProject<?, ? extends AbstractBuild<?, ?>> project =
-                    Jenkins.get().getItemByFullName(br.projectName, AbstractProject.class);
-            if (br.buildNumber != 0) {
-                builds.add((project != null) ? project.getBuildByNumber(br.buildNumber) : null);
+        int n = 0;
+        for (int i = 0; i < refs.size; i++) {
+            if (refs.buildNumbers[i] != 0 && n++ >= start) {
+                if (builds.size() >= count) {
+                    break;
+                }
+                AbstractProject<?, ? extends AbstractBuild<?, ?>> project =
+                        Jenkins.get().getItemByFullName(refs.projectName(i), AbstractProject.class);
+                builds.add((project != null) ? project.getBuildByNumber(refs.buildNumbers[i]) : null);
             }
         }
         return builds;
     }
 
+    /**
+     * @return number of builds returned by {@link #getTriggeredBuilds()}, without loading them
+     */
+    public int getTriggeredBuildCount() {
+        return getTriggeredBuildCount(refs());
+    }
+
+    private static int getTriggeredBuildCount(Refs refs) {
+        int count = 0;
+        for (int i = 0; i < refs.size; i++) {
+            if (refs.buildNumbers[i] != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Gets all the projects that triggered from this one which were non blocking,
      * which we don't have a builds for. Does not include builds that are returned
-     * in #link{getTriggeredBuilds} Used in the UI for see Summary.groovy
+     * in #link{getTriggeredBuilds}
      *
      * @return List of Projects that are triggered by this build. May contains null if a project is deleted.
      */
     @Exported(visibility = 1)
     public List<AbstractProject<?, ?>> getTriggeredProjects() {
+        return getTriggeredProjects(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets a page of the projects returned by {@link #getTriggeredProjects()}.
+     * Used in the UI for see summary.groovy
+     *
+     * @param start index of the first project to return, in the order they were triggered
+     * @param count maximum number of projects to return
+     * @return projects triggered by this build. May contains null if a project is deleted.
+     */
+    public List<AbstractProject<?, ?>> getTriggeredProjects(int start, int count) {
         List<AbstractProject<?, ?>> projects = new ArrayList<>();
+        Refs refs = refs();
 
-        for (BuildReference br : this.builds) {
-            if (br.buildNumber == 0) {
+        int n = 0;
+        for (int i = 0; i < refs.size; i++) {
+            if (refs.buildNumbers[i] == 0 && n++ >= start) {
+                if (projects.size() >= count) {
+                    break;
+                }
                 AbstractProject<?, ? extends AbstractBuild<?, ?>> project =
-                        Jenkins.get().getItemByFullName(br.projectName, AbstractProject.class);
+                        Jenkins.get().getItemByFullName(refs.projectName(i), AbstractProject.class);
                 projects.add(project);
             }
         }
         return projects;
     }
 
+    /**
+     * @return number of projects returned by {@link #getTriggeredProjects()}
+     */
+    public int getTriggeredProjectCount() {
+        Refs refs = refs();
+        return refs.size - getTriggeredBuildCount(refs);
+    }
+
+    /**
+     * The references to everything triggered from this build, as recorded. Unlike {@link #getTriggeredBuilds()},
+     * this does not load any build. The references are created on each call from the compact form.
+     *
+     * @return references in the order they were triggered, with a build number of 0 for non blocking triggers
+     */
+    @Exported(visibility = 2)
+    public List<BuildReference> getBuildReferences() {
+        Refs refs = refs();
+        List<BuildReference> builds = new ArrayList<>(refs.size);
+        for (int i = 0; i < refs.size; i++) {
+            builds.add(refs.get(i));
+        }
+        return Collections.unmodifiableList(builds);
+    }
+
+    /**
+     * @return number of builds or projects that views show before the user asks for more
+     */
+    public static int getPageSize() {
+        return PAGE_SIZE;
+    }
+
+    /**
+     * Saves a copy taken under the lock of this action, with the arrays trimmed to the references in use, as a build
+     * may be saved while a trigger records another reference.
+     *
+     * @return object to save instead of this one
+     */
+    protected synchronized Object writeReplace() {
+        return new BuildInfoExporterAction(this);
+    }
+
     /**
      * Handle cases from older builds so that they still add old variables if
      * needed to. Should not show any UI as there will be no data added.
@@ -249,13 +710,38 @@ public class BuildInfoExporterAction implements EnvironmentContributingAction {
         if (this.lastReference == null) {
             this.lastReference = new BuildReference(this.buildName, this.buildNumber, Result.NOT_BUILT);
         }
-        if (this.builds == null) {
-            this.builds = new ArrayList<>();
+        List<BuildReference> legacy = new ArrayList<>();
+        if (this.builds != null) {
+            legacy.addAll(this.builds);
         }
         if (this.buildRefs != null) {
             for (List<BuildReference> buildReferences : buildRefs.values()) {
-                this.builds.addAll(buildReferences);
+                legacy.addAll(buildReferences);
+            }
+        }
+
+        this.builds = null;
+        this.buildRefs = null;
+        this.projectIndexes = new HashMap<>();
+        if (this.projectNames != null && this.projects != null && this.buildNumbers != null && this.results != null) {
+            for (int i = 0; i < projectNames.length && projectNames[i] != null; i++) {
+                projectIndexes.put(projectNames[i], i);
             }
+        } else {
+            this.projectNames = new String[0];
+            this.projects = new int[0];
+            this.buildNumbers = new int[0];
+            this.results = new byte[0];
+            this.size = 0;
+        }
+        for (BuildReference br : legacy) {
+            append(br);
+        }
+
+        Integer last = projectIndexes.get(lastReference.projectName);
+        if (last != null && projectNames[last] != lastReference.projectName) {
+            lastReference =
+                    new BuildReference(projectNames[last], lastReference.buildNumber, lastReference.buildResult);
         }
         return this;
     }
@@ -263,23 +749,25 @@ public class BuildInfoExporterAction implements EnvironmentContributingAction {
     /**
      * Gets a string for all of the build numbers
      *
-     * @param refs List of build references to process.
+     * @param refs build references to process.
+     * @param projectBuilds positions in refs of the references of one project
      * @param separator
      * @return String containing all the build numbers from refs, never null but
      * can be empty
      */
-    private String getBuildNumbersString(List<BuildReference> refs, String separator) {
+    private String getBuildNumbersString(Refs refs, ProjectBuilds projectBuilds, String separator) {
         StringBuilder buf = new StringBuilder();
         boolean first = true;
 
-        for (BuildReference s : refs) {
-            if (s.buildNumber != 0) {
+        for (int k = 0; k < projectBuilds.count; k++) {
+            int buildNumber = refs.buildNumbers[projectBuilds.positions[k]];
+            if (buildNumber != 0) {
                 if (first) {
                     first = false;
                 } else {
                     buf.append(separator);
                 }
-                buf.append(s.buildNumber);
+                buf.append(buildNumber);
             }
         }
         return buf.toString();
@@ -302,7 +790,7 @@ public class BuildInfoExporterAction implements EnvironmentContributingAction {
             } else {
                 buf.append(separator);
             }
-            buf.append(s.replaceAll("[^a-zA-Z0-9]+", "_"));
+            buf.append(sanitize(s));
         }
         return buf.toString();
     }
@@ -315,9 +803,9 @@ public class BuildInfoExporterAction implements EnvironmentContributingAction {
     private Set<String> getProjectsWithBuilds() {
         Set<String> projects = new HashSet<String>();
 
-        for (BuildReference br : this.builds) {
-            if (br.buildNumber != 0) {
-                projects.add(br.projectName);
+        for (Map.Entry<String, ProjectBuilds> entry : getIndex().entrySet()) {
+            if (entry.getValue().hasBuilds) {
+                projects.add(entry.getKey());
             }
         }
         return projects;
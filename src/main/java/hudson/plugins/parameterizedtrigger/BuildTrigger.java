@@ -27,6 +27,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import jenkins.model.DependencyDeclarer;
 import jenkins.model.Jenkins;
@@ -64,6 +65,29 @@ public class BuildTrigger extends Notifier implements DependencyDeclarer {
         return Collections.singletonList(new DynamicProjectAction(configs));
     }
 
+    /**
+     * The build stays in memory along with its {@link CapturedEnvironmentAction}, so only the variables the configs
+     * use are kept, unless some parameters may use any of them.
+     */
+    private EnvVars getReferencedEnvironment(EnvVars env) {
+        Set<String> names = new HashSet<>();
+        for (BuildTriggerConfig config : configs) {
+            Set<String> referenced = config.getReferencedVariables();
+            if (referenced == null) {
+                return env;
+            }
+            names.addAll(referenced);
+        }
+        EnvVars referencedEnv = new EnvVars();
+        for (String name : names) {
+            String value = env.get(name);
+            if (value != null) {
+                referencedEnv.put(name, value);
+            }
+        }
+        return referencedEnv;
+    }
+
     @Override
     @SuppressWarnings("deprecation")
     public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
@@ -99,7 +123,7 @@ public class BuildTrigger extends Notifier implements DependencyDeclarer {
             // job will get triggered by dependency graph, so we have to capture buildEnvironment NOW before
             // hudson.model.AbstractBuild.AbstractBuildExecution#cleanUp is called and reset
             EnvVars env = build.getEnvironment(listener);
-            build.addAction(new CapturedEnvironmentAction(env));
+            build.addAction(new CapturedEnvironmentAction(getReferencedEnvironment(env)));
         } else { // Not using dependency graph
             for (BuildTriggerConfig config : configs) {
                 if (!alreadyFired.contains(config)) {
@@ -158,7 +182,7 @@ public class BuildTrigger extends Notifier implements DependencyDeclarer {
         if (!canDeclare(owner)) return;
 
         for (BuildTriggerConfig config : configs) {
-            List<AbstractProject> projectList = config.getProjectList(owner.getParent(), null);
+            List<AbstractProject> projectList = config.getDependencyProjects(owner);
             for (AbstractProject project : projectList) {
                 if (config.isTriggerFromChildProjects() && owner instanceof ItemGroup) {
                     ItemGroup<Item> parent = (ItemGroup) owner;
@@ -28,17 +28,23 @@ import hudson.model.TaskListener;
 import hudson.model.queue.QueueTaskFuture;
 import hudson.model.queue.Tasks;
 import hudson.plugins.parameterizedtrigger.AbstractBuildParameters.DontTriggerException;
+import hudson.plugins.parameterizedtrigger.matrix.MatrixSubsetAction;
 import hudson.plugins.promoted_builds.Promotion;
 import hudson.security.ACL;
 import hudson.util.FormValidation;
 import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.logging.Level;
@@ -47,12 +53,14 @@ import jenkins.model.Jenkins;
 import jenkins.model.ParameterizedJobMixIn;
 import jenkins.security.QueueItemAuthenticator;
 import jenkins.security.QueueItemAuthenticatorConfiguration;
+import jenkins.util.SystemProperties;
 import org.acegisecurity.AccessDeniedException;
 import org.acegisecurity.Authentication;
 import org.kohsuke.accmod.Restricted;
 import org.kohsuke.accmod.restrictions.DoNotUse;
 import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
@@ -66,6 +74,17 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
     private final ResultCondition condition;
     private final boolean triggerWithNoParameters;
     private final boolean triggerFromChildProjects;
+    private boolean supersedeQueuedBuilds;
+
+    /**
+     * Last result of {@link #getDependencyProjects(AbstractProject)}.
+     */
+    private transient volatile ResolvedProjects resolvedProjects;
+
+    /**
+     * Last result of {@link #getSharedBaseActions(AbstractBuild, TaskListener)}, which the garbage collector may drop.
+     */
+    private transient volatile SoftReference<SharedBaseActions> sharedBaseActions;
 
     public BuildTriggerConfig(
             String projects,
@@ -150,6 +169,19 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
         return triggerFromChildProjects;
     }
 
+    /**
+     * @return whether triggering cancels the builds older builds of the same project queued with this config, which
+     *     have not started yet
+     */
+    public boolean isSupersedeQueuedBuilds() {
+        return supersedeQueuedBuilds;
+    }
+
+    @DataBoundSetter
+    public void setSupersedeQueuedBuilds(boolean supersedeQueuedBuilds) {
+        this.supersedeQueuedBuilds = supersedeQueuedBuilds;
+    }
+
     /**
      * @deprecated
      *      Use {@link #getJobs(ItemGroup, EnvVars)}
@@ -185,6 +217,65 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
         return projectList;
     }
 
+    /**
+     * @return the variables of the upstream build environment the parameters of this config expand, or {@code null}
+     *     if they may use any variable
+     * @see AbstractBuildParameters#getReferencedVariables()
+     */
+    @CheckForNull
+    Set<String> getReferencedVariables() {
+        Set<String> names = new HashSet<>();
+        for (AbstractBuildParameters config : configs) {
+            Set<String> referenced = config.getReferencedVariables();
+            if (referenced == null) {
+                return null;
+            }
+            names.addAll(referenced);
+        }
+        return names;
+    }
+
+    /**
+     * Projects to declare as downstream of {@code owner} in the dependency graph.
+     *
+     * <p>
+     * The graph is rebuilt whenever any job is saved, so the projects are only resolved again when the configured
+     * names changed or when jobs were created, renamed, moved or deleted since, as counted by {@link ItemGeneration}.
+     * Only results computed as {@link ACL#SYSTEM2}, like the graph is, are kept, as other users may not see every job.
+     */
+    List<AbstractProject> getDependencyProjects(AbstractProject owner) {
+        ItemGroup context = owner.getParent();
+        String names = projects;
+        long generation = ItemGeneration.get();
+        ResolvedProjects resolved = resolvedProjects;
+        if (resolved != null && resolved.matches(context, names, generation)) {
+            return resolved.projects;
+        }
+        List<AbstractProject> projectList = Collections.unmodifiableList(getProjectList(context, null));
+        if (ACL.SYSTEM2.equals(Jenkins.getAuthentication2())) {
+            resolvedProjects = new ResolvedProjects(context, names, generation, projectList);
+        }
+        return projectList;
+    }
+
+    private static final class ResolvedProjects {
+        private final ItemGroup context;
+        private final String names;
+        private final long generation;
+        private final List<AbstractProject> projects;
+
+        ResolvedProjects(ItemGroup context, String names, long generation, List<AbstractProject> projects) {
+            this.context = context;
+            this.names = names;
+            this.generation = generation;
+            this.projects = projects;
+        }
+
+        boolean matches(ItemGroup context, String names, long generation) {
+            return this.context == context && Objects.equals(this.names, names) && this.generation == generation;
+        }
+    }
+
     /**
      * Provides a SubProjectData object containing four set, each containing projects to be displayed on the project
      * view under 'Subprojects' section.<br>
@@ -202,7 +293,12 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
 
         SubProjectData subProjectData = new SubProjectData();
 
-        iterateBuilds(context, projects, subProjectData);
+        SubProjectIndex index = SubProjectIndex.getIfRecorded(context);
+        if (index != null) {
+            readIndex(context, projects, index, subProjectData);
+        } else {
+            iterateBuilds(context, projects, subProjectData);
+        }
 
         // We don't want to show a project twice
         subProjectData.getTriggered().removeAll(subProjectData.getDynamic());
@@ -272,6 +368,40 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
         }
     }
 
+    /**
+     * Resolves the projects like {@link #iterateBuilds(AbstractProject, String, SubProjectData)}, but from what the
+     * project recorded when it triggered them instead of from its old builds.
+     *
+     * @param context           The container with which to resolve relative project names.
+     * @param projects          String containing the defined projects to build
+     * @param index             What the project recorded
+     * @param subProjectData    Data object containing sets storing projects
+     */
+    private static void readIndex(
+            AbstractProject context, String projects, SubProjectIndex index, SubProjectData subProjectData) {
+        ItemGroup root = Jenkins.get();
+        StringTokenizer stringTokenizer = new StringTokenizer(projects, ",");
+        while (stringTokenizer.hasMoreTokens()) {
+            String name = stringTokenizer.nextToken().trim();
+            List<Job> resolved;
+            if (name.contains("$")) {
+                resolved = readableItemsFromNameList(root, String.join(",", index.getDynamic(name)), Job.class);
+                subProjectData.getDynamic().addAll(resolved);
+            } else {
+                resolved = readableItemsFromNameList(context.getParent(), name, Job.class);
+                subProjectData.getFixed().addAll(resolved);
+            }
+            if (resolved.isEmpty()) {
+                subProjectData.getUnresolved().add(name);
+            }
+        }
+
+        subProjectData
+                .getTriggered()
+                .addAll(readableItemsFromNameList(
+                        root, String.join(",", index.getTriggered()), AbstractProject.class));
+    }
+
     /**
      * Retrieves readable items from the list.
      * @param <T> Type of the item
@@ -368,6 +498,41 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
         return getBaseActions(configs, build, listener);
     }
 
+    /**
+     * Like {@link #getBaseActions(AbstractBuild, TaskListener)}, but computed once for all the downstream projects
+     * {@link ParameterizedDependency} triggers after {@code build}, rather than reading files and parsing properties
+     * again for each of them.
+     */
+    List<Action> getSharedBaseActions(AbstractBuild<?, ?> build, TaskListener listener)
+            throws IOException, InterruptedException, DontTriggerException {
+        SoftReference<SharedBaseActions> ref = sharedBaseActions;
+        SharedBaseActions shared = ref != null ? ref.get() : null;
+        if (shared == null || shared.build.get() != build) {
+            try {
+                shared = new SharedBaseActions(build, getBaseActions(build, listener), null);
+            } catch (DontTriggerException e) {
+                shared = new SharedBaseActions(build, null, e);
+            }
+            sharedBaseActions = new SoftReference<>(shared);
+        }
+        if (shared.dontTrigger != null) {
+            throw shared.dontTrigger;
+        }
+        return shared.actions;
+    }
+
+    private static final class SharedBaseActions {
+        private final WeakReference<AbstractBuild<?, ?>> build;
+        private final List<Action> actions;
+        private final DontTriggerException dontTrigger;
+
+        SharedBaseActions(AbstractBuild<?, ?> build, List<Action> actions, DontTriggerException dontTrigger) {
+            this.build = new WeakReference<>(build);
+            this.actions = actions != null ? Collections.unmodifiableList(actions) : null;
+            this.dontTrigger = dontTrigger;
+        }
+    }
+
     List<Action> getBaseActions(
             Collection<AbstractBuildParameters> configs, AbstractBuild<?, ?> build, TaskListener listener)
             throws IOException, InterruptedException, DontTriggerException {
@@ -388,7 +553,15 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
     }
 
     List<Action> getBuildActions(List<Action> baseActions, Job<?, ?> project) {
-        List<Action> actions = new ArrayList<>(baseActions);
+        List<Action> actions = new ArrayList<>(baseActions.size());
+        for (Action a : baseActions) {
+            // remembers the combinations of the build it is attached to, so each project gets its own
+            if (a instanceof MatrixSubsetAction) {
+                MatrixSubsetAction subset = (MatrixSubsetAction) a;
+                a = new MatrixSubsetAction(subset.getFilter(), subset.getFilterSyntax());
+            }
+            actions.add(a);
+        }
 
         ProjectSpecificParametersActionFactory transformer = new ProjectSpecificParametersActionFactory(
                 new ProjectSpecificParameterValuesActionTransform(), new DefaultParameterValuesActionsTransform());
@@ -410,6 +583,7 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
             if (condition.isMet(build.getResult())) {
                 QueueTaskFuture future = null;
                 List<QueueTaskFuture<AbstractBuild>> futures = new ArrayList<>();
+                Set<Job> triggered = new LinkedHashSet<>();
 
                 for (List<AbstractBuildParameters> addConfigs : getDynamicBuildParameters(build, listener)) {
                     List<AbstractBuildParameters> buildParams = new ArrayList<>(configs);
@@ -422,12 +596,14 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
                         future = schedule(build, project, list, listener);
                         if (future != null) {
                             futures.add(future);
+                            triggered.add(project);
                         } else {
                             reportSchedulingError(build, project, listener);
                         }
                     }
                 }
 
+                recordSubProjects(build, env, triggered);
                 return futures;
             }
         } catch (DontTriggerException e) {
@@ -436,6 +612,32 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
         return Collections.emptyList();
     }
 
+    /**
+     * Records in the {@link SubProjectIndex} of the triggering project what its dynamic project names resolved to and
+     * what it triggered, for {@link #getProjectInfo(AbstractProject)}.
+     */
+    private void recordSubProjects(AbstractBuild<?, ?> build, EnvVars env, Collection<Job> triggered) {
+        AbstractProject<?, ?> context = build.getRootBuild().getProject();
+        SubProjectIndex index = SubProjectIndex.get(context);
+        StringTokenizer tokens = new StringTokenizer(projects, ",");
+        while (tokens.hasMoreTokens()) {
+            String name = tokens.nextToken().trim();
+            if (name.contains("$")) {
+                for (Job job : readableItemsFromNameList(context.getParent(), env.expand(name), Job.class)) {
+                    index.addDynamic(name, job.getFullName());
+                }
+            }
+        }
+        for (Job job : triggered) {
+            index.addTriggered(job.getFullName());
+        }
+        try {
+            index.save();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to record the sub projects of " + context.getFullName(), e);
+        }
+    }
+
     private void reportSchedulingError(
             @NonNull Run<?, ?> run, @NonNull Job<?, ?> jobToTrigger, @NonNull BuildListener listener) {
         // Do not print details to Build Listener, they have been reported previously in #canTriggerProject()
@@ -501,6 +703,7 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
                         }
                     }
                 }
+                recordSubProjects(build, env, futures.keySet());
                 return futures;
             }
         } catch (DontTriggerException e) {
@@ -606,6 +809,10 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
                 return null;
             }
 
+            if (supersedeQueuedBuilds) {
+                queueActions.add(SupersedableTriggerAction.supersede(build, project, this, listener));
+            }
+
             return parameterizedJobMixIn.scheduleBuild2(quietPeriod, queueActions.toArray(new Action[0]));
         }
 
@@ -712,6 +919,12 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
 
     @Extension
     public static class DescriptorImpl extends Descriptor<BuildTriggerConfig> {
+        /**
+         * Maximum number of projects suggested while typing.
+         */
+        private static final int AUTO_COMPLETION_LIMIT =
+                SystemProperties.getInteger(BuildTriggerConfig.class.getName() + ".autoCompletionLimit", 100);
+
         @Override
         public String getDisplayName() {
             return ""; // unused
@@ -752,7 +965,7 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
 
                 Item item = Jenkins.get().getItem(projectName, project, Item.class); // only works after version 1.410
                 if (item == null) {
-                    Item nearest = Items.findNearest(Job.class, projectName, Jenkins.get());
+                    Item nearest = JobNameIndex.get().findNearest(projectName);
                     String alternative = nearest != null ? nearest.getRelativeNameFrom(project) : "?";
                     return FormValidation.error(Messages.BuildTrigger_NoSuchProject(projectName, alternative));
                 }
@@ -793,11 +1006,18 @@ public class BuildTriggerConfig implements Describable<BuildTriggerConfig> {
         public AutoCompletionCandidates doAutoCompleteProjects(
                 @QueryParameter String value, @AncestorInPath ItemGroup context) {
             AutoCompletionCandidates candidates = new AutoCompletionCandidates();
-            List<Job> jobs = Jenkins.get().getAllItems(Job.class);
-            for (Job job : jobs) {
-                String relativeName = job.getRelativeNameFrom(context);
-                if (relativeName.startsWith(value)) {
-                    if (job.hasPermission(Item.READ)) {
+            if (context == null) {
+                context = Jenkins.get();
+            }
+            String prefix = JobNameIndex.getFullNamePrefix(Util.fixNull(value), context);
+            for (String fullName : JobNameIndex.get().getNamesStartingWith(prefix)) {
+                if (candidates.getValues().size() >= AUTO_COMPLETION_LIMIT) {
+                    break;
+                }
+                Job job = Jenkins.get().getItemByFullName(fullName, Job.class);
+                if (job != null && job.hasPermission(Item.READ)) {
+                    String relativeName = job.getRelativeNameFrom(context);
+                    if (relativeName.startsWith(Util.fixNull(value))) {
                         candidates.add(relativeName);
                     }
                 }
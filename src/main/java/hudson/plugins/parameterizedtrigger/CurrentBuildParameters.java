@@ -10,7 +10,9 @@ import hudson.model.ParametersAction;
 import hudson.model.TaskListener;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 public class CurrentBuildParameters extends AbstractBuildParameters {
@@ -34,6 +36,11 @@ public class CurrentBuildParameters extends AbstractBuildParameters {
         }
     }
 
+    @Override
+    public Set<String> getReferencedVariables() {
+        return Collections.emptySet();
+    }
+
     @Extension
     public static class DescriptorImpl extends Descriptor<AbstractBuildParameters> {
 
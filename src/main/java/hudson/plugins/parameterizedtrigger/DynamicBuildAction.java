@@ -27,10 +27,31 @@ public class DynamicBuildAction implements RunAction2 {
     @Override
     public void onLoad(Run<?, ?> run) {}
 
+    /**
+     * Loads every dynamic downstream build, see {@link #getBuilds(int, int)} for views.
+     */
     public List<AbstractBuild<?, ?>> getBuilds() {
+        return getBuilds(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets a page of the dynamic downstream builds, loading only those builds.
+     *
+     * @param start index of the first recorded build
+     * @param count maximum number of recorded builds to look at
+     * @return the builds that still exist
+     */
+    public List<AbstractBuild<?, ?>> getBuilds(int start, int count) {
         List<AbstractBuild<?, ?>> builds = new ArrayList<>();
         Jenkins j = Jenkins.getInstance();
+        int i = 0;
         for (Map.Entry<String, Integer> entry : buildsMap.entrySet()) {
+            if (i++ < start) {
+                continue;
+            }
+            if (i > start + (long) count) {
+                break;
+            }
             Job<?, ?> job = j.getItemByFullName(entry.getKey(), Job.class);
             if (null != job && job instanceof AbstractProject) {
                 AbstractProject project = (AbstractProject) job;
@@ -44,6 +65,17 @@ public class DynamicBuildAction implements RunAction2 {
         return builds;
     }
 
+    /**
+     * @return number of recorded builds, without loading them
+     */
+    public int getBuildCount() {
+        return buildsMap.size();
+    }
+
+    public int getPageSize() {
+        return BuildInfoExporterAction.getPageSize();
+    }
+
     @Override
     public String getIconFileName() {
         return null;
@@ -54,8 +86,11 @@ public class DynamicBuildAction implements RunAction2 {
         return null;
     }
 
+    /**
+     * Not shown in the side panel, only there for views to fetch further pages.
+     */
     @Override
     public String getUrlName() {
-        return null;
+        return "dynamicBuilds";
     }
 }
@@ -17,24 +17,62 @@ import hudson.model.ParametersAction;
 import hudson.model.StringParameterValue;
 import hudson.model.TaskListener;
 import hudson.model.TextParameterValue;
+import hudson.plugins.parameterizedtrigger.matrix.CombinationFilterCache;
+import hudson.plugins.parameterizedtrigger.matrix.CombinationFilterSyntax;
+import hudson.plugins.parameterizedtrigger.matrix.MatrixSubsetBuildParameters;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
 import hudson.util.FormValidation;
+import hudson.util.NamingThreadFactory;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
 import jenkins.util.VirtualFile;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.QueryParameter;
+import org.springframework.security.core.Authentication;
 
 public class FileBuildParameters extends AbstractBuildParameters {
+    /**
+     * Maximum number of matrix children whose properties files are read concurrently.
+     */
+    private static final int MATRIX_CHILD_READ_THREADS = Math.max(
+            1, SystemProperties.getInteger(FileBuildParameters.class.getName() + ".matrixChildReadThreads", 8));
+
+    /**
+     * Shared by all triggers so that concurrent builds never use more than {@link #MATRIX_CHILD_READ_THREADS} threads,
+     * which are released once idle.
+     */
+    private static final ThreadPoolExecutor MATRIX_CHILD_READ_EXECUTOR = createMatrixChildReadExecutor();
+
+    private static ThreadPoolExecutor createMatrixChildReadExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                MATRIX_CHILD_READ_THREADS,
+                MATRIX_CHILD_READ_THREADS,
+                60,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), FileBuildParameters.class.getSimpleName()));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     private final String propertiesFile;
     private final String encoding;
     private final boolean failTriggerOnMissing;
@@ -43,6 +81,7 @@ public class FileBuildParameters extends AbstractBuildParameters {
     /*properties used for a matrix project*/
     private final boolean useMatrixChild;
     private final String combinationFilter;
+    private final CombinationFilterSyntax combinationFilterSyntax;
     private final boolean onlyExactRuns;
 
     @DataBoundConstructor
@@ -53,21 +92,43 @@ public class FileBuildParameters extends AbstractBuildParameters {
             boolean useMatrixChild,
             String combinationFilter,
             boolean onlyExactRuns,
-            boolean textParamValueOnNewLine) {
+            boolean textParamValueOnNewLine,
+            CombinationFilterSyntax combinationFilterSyntax) {
         this.propertiesFile = propertiesFile;
         this.encoding = Util.fixEmptyAndTrim(encoding);
         this.failTriggerOnMissing = failTriggerOnMissing;
         this.useMatrixChild = useMatrixChild;
         if (this.useMatrixChild) {
             this.combinationFilter = combinationFilter;
+            this.combinationFilterSyntax = CombinationFilterSyntax.fixNull(combinationFilterSyntax);
             this.onlyExactRuns = onlyExactRuns;
         } else {
             this.combinationFilter = null;
+            this.combinationFilterSyntax = null;
             this.onlyExactRuns = false;
         }
         this.textParamValueOnNewLine = textParamValueOnNewLine;
     }
 
+    public FileBuildParameters(
+            String propertiesFile,
+            String encoding,
+            boolean failTriggerOnMissing,
+            boolean useMatrixChild,
+            String combinationFilter,
+            boolean onlyExactRuns,
+            boolean textParamValueOnNewLine) {
+        this(
+                propertiesFile,
+                encoding,
+                failTriggerOnMissing,
+                useMatrixChild,
+                combinationFilter,
+                onlyExactRuns,
+                textParamValueOnNewLine,
+                CombinationFilterSyntax.GROOVY);
+    }
+
     public FileBuildParameters(
             String propertiesFile,
             String encoding,
@@ -110,15 +171,68 @@ public class FileBuildParameters extends AbstractBuildParameters {
         List<ParameterValue> values = new ArrayList<>();
 
         // builds to scan.
-        Collection<? extends AbstractBuild<?, ?>> targetBuilds = getTargetBuilds(build);
+        List<? extends AbstractBuild<?, ?>> targetBuilds = getTargetBuilds(build);
 
-        for (AbstractBuild<?, ?> targetBuild : targetBuilds) {
-            values.addAll(extractAllValues(targetBuild, listener, trimmedFiles));
+        if (targetBuilds.size() <= 1) {
+            for (AbstractBuild<?, ?> targetBuild : targetBuilds) {
+                values.addAll(extractAllValues(targetBuild, listener, trimmedFiles));
+            }
+        } else {
+            for (List<ParameterValue> childValues : extractAllValuesInParallel(targetBuilds, listener, trimmedFiles)) {
+                values.addAll(childValues);
+            }
         }
         // Values might be empty, in that case don't return anything.
         return values.size() == 0 ? null : new ParametersAction(values);
     }
 
+    /**
+     * Reads the properties files of several builds (typically matrix children located on different agents)
+     * concurrently on {@link #MATRIX_CHILD_READ_EXECUTOR}.
+     *
+     * @return the values of each build, in the same order as {@code builds}.
+     */
+    private List<List<ParameterValue>> extractAllValuesInParallel(
+            List<? extends AbstractBuild<?, ?>> builds, TaskListener listener, String[] allFiles)
+            throws IOException, InterruptedException, DontTriggerException {
+        final Authentication auth = Jenkins.getAuthentication2();
+        List<Future<List<ParameterValue>>> futures = new ArrayList<>(builds.size());
+        try {
+            for (final AbstractBuild<?, ?> targetBuild : builds) {
+                futures.add(MATRIX_CHILD_READ_EXECUTOR.submit(() -> {
+                    try (ACLContext ctx = ACL.as2(auth)) {
+                        return extractAllValues(targetBuild, listener, allFiles);
+                    }
+                }));
+            }
+
+            List<List<ParameterValue>> values = new ArrayList<>(futures.size());
+            for (Future<List<ParameterValue>> future : futures) {
+                try {
+                    values.add(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof DontTriggerException) {
+                        throw (DontTriggerException) cause;
+                    } else if (cause instanceof InterruptedException) {
+                        throw (InterruptedException) cause;
+                    } else if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IOException(cause);
+                }
+            }
+            return values;
+        } finally {
+            // the pool is shared, so only stop what is left of this trigger when it fails or is interrupted
+            for (Future<List<ParameterValue>> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
     private List<ParameterValue> extractAllValues(AbstractBuild<?, ?> build, TaskListener listener, String[] allFiles)
             throws IOException, InterruptedException, DontTriggerException {
         List<ParameterValue> values = new ArrayList<>();
@@ -172,7 +286,7 @@ public class FileBuildParameters extends AbstractBuildParameters {
         return values;
     }
 
-    private Collection<? extends AbstractBuild<?, ?>> getTargetBuilds(AbstractBuild<?, ?> build) {
+    private List<? extends AbstractBuild<?, ?>> getTargetBuilds(AbstractBuild<?, ?> build) {
         if ((build instanceof MatrixBuild) && isUseMatrixChild()) {
             Stream<MatrixRun> buildsStream = isOnlyExactRuns()
                     ? ((MatrixBuild) build).getExactRuns().stream()
@@ -189,7 +303,7 @@ public class FileBuildParameters extends AbstractBuildParameters {
                         Combination c = run.getParent().getCombination();
                         AxisList axes = run.getParent().getParent().getAxes();
 
-                        return c.evalGroovyExpression(axes, getCombinationFilter());
+                        return CombinationFilterCache.evaluate(c, axes, getCombinationFilter(), combinationFilterSyntax);
                     })
                     .collect(Collectors.toList());
 
@@ -222,6 +336,13 @@ public class FileBuildParameters extends AbstractBuildParameters {
         return combinationFilter;
     }
 
+    /**
+     * @return language of {@link #getCombinationFilter()}, null if matrix children are not used.
+     */
+    public CombinationFilterSyntax getCombinationFilterSyntax() {
+        return useMatrixChild ? CombinationFilterSyntax.fixNull(combinationFilterSyntax) : null;
+    }
+
     public boolean isOnlyExactRuns() {
         return onlyExactRuns;
     }
@@ -246,6 +367,12 @@ public class FileBuildParameters extends AbstractBuildParameters {
             return FormValidation.ok();
         }
 
+        public FormValidation doCheckCombinationFilter(
+                @QueryParameter String value, @QueryParameter String combinationFilterSyntax) {
+            return MatrixSubsetBuildParameters.checkFilter(
+                    value, CombinationFilterSyntax.fromName(combinationFilterSyntax));
+        }
+
         /**
          * Check whether the configuring model is {@link MatrixProject}. Called from jelly.
          *
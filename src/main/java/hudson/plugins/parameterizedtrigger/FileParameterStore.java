@@ -0,0 +1,255 @@
+package hudson.plugins.parameterizedtrigger;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.InvisibleAction;
+import hudson.model.ParameterValue;
+import hudson.model.ParametersAction;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import hudson.model.queue.QueueListener;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Content-addressed store on the controller for the files that {@link BinaryFileParameterFactory} passes to
+ * downstream builds.
+ *
+ * <p>
+ * Each distinct content is kept once as {@code $JENKINS_HOME/parameterized-trigger-files/<sha256>/blob}. The
+ * triggering build and every downstream build that uses the file, from the time it is queued, hold a reference,
+ * recorded as a file under {@code <sha256>/refs}. Build directories get hard links to the blob where the file system
+ * allows it, so N builds do not need N copies. When the last referencing build is deleted, e.g. by a build discarder,
+ * or cancelled while queued, the blob is removed. Hard links that still exist in build directories keep their content
+ * regardless.
+ *
+ * @see StoredFileParameterValue
+ */
+@Restricted(NoExternalUse.class)
+public final class FileParameterStore {
+
+    private static final Logger LOGGER = Logger.getLogger(FileParameterStore.class.getName());
+
+    /**
+     * Set to {@code false} to let every downstream build keep its own copy of binary file parameters.
+     */
+    static final boolean ENABLED =
+            SystemProperties.getBoolean(FileParameterStore.class.getName() + ".enabled", true);
+
+    private static final Pattern DIGEST = Pattern.compile("[0-9a-f]{64}");
+
+    private static final FileParameterStore INSTANCE = new FileParameterStore();
+
+    private FileParameterStore() {}
+
+    public static FileParameterStore get() {
+        return INSTANCE;
+    }
+
+    private File getRootDir() {
+        return new File(Jenkins.get().getRootDir(), "parameterized-trigger-files");
+    }
+
+    private File getEntryDir(String digest) {
+        if (!DIGEST.matcher(digest).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 digest: " + digest);
+        }
+        return new File(getRootDir(), digest);
+    }
+
+    /**
+     * Adds a file to the store, if its content is not there yet, and records a reference held by {@code run}.
+     *
+     * @param file a file on the controller
+     * @param digest SHA-256 of the content of {@code file}, as lower case hex
+     * @param run the build holding the reference
+     * @return the stored blob
+     */
+    public synchronized File put(@NonNull File file, @NonNull String digest, @NonNull Run<?, ?> run)
+            throws IOException {
+        File blob = new File(getEntryDir(digest), "blob");
+        if (!blob.isFile()) {
+            Files.createDirectories(blob.getParentFile().toPath());
+            link(file.toPath(), blob.toPath());
+        }
+        addReference(digest, run);
+        return blob;
+    }
+
+    /**
+     * Records a reference to stored content.
+     *
+     * @param reference name of the reference, unique to its holder
+     * @param holder description of the holder
+     * @return the stored blob, or null if the content is no longer in the store
+     */
+    @CheckForNull
+    synchronized File acquire(@NonNull String digest, @NonNull String reference, @NonNull String holder)
+            throws IOException {
+        File blob = getBlob(digest);
+        if (blob == null) {
+            return null;
+        }
+        addReference(digest, reference, holder);
+        return blob;
+    }
+
+    /**
+     * @return the stored blob, or null if the content is no longer in the store
+     */
+    @CheckForNull
+    synchronized File getBlob(@NonNull String digest) {
+        File blob = new File(getEntryDir(digest), "blob");
+        return blob.isFile() ? blob : null;
+    }
+
+    /**
+     * Drops the reference held by {@code run}, and the content once nothing references it anymore.
+     */
+    public void release(@NonNull String digest, @NonNull Run<?, ?> run) {
+        release(digest, referenceName(run));
+    }
+
+    /**
+     * Drops a reference, and the content once nothing references it anymore.
+     *
+     * @param reference name of the reference, as given to {@link #acquire(String, String, String)}
+     */
+    synchronized void release(@NonNull String digest, @NonNull String reference) {
+        File dir = getEntryDir(digest);
+        File refs = new File(dir, "refs");
+        try {
+            Files.deleteIfExists(new File(refs, reference).toPath());
+            String[] remaining = refs.list();
+            if (remaining == null || remaining.length == 0) {
+                Util.deleteRecursive(dir);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to release stored file " + digest + " for " + reference, e);
+        }
+    }
+
+    private void addReference(String digest, Run<?, ?> run) throws IOException {
+        addReference(digest, referenceName(run), run.getExternalizableId());
+    }
+
+    private void addReference(String digest, String reference, String holder) throws IOException {
+        File refs = new File(getEntryDir(digest), "refs");
+        Files.createDirectories(refs.toPath());
+        Files.write(new File(refs, reference).toPath(), holder.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String referenceName(Run<?, ?> run) {
+        return Util.getDigestOf(run.getExternalizableId());
+    }
+
+    /**
+     * Hard links {@code source} to {@code target}, or copies it if the file system does not allow that.
+     */
+    static void link(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOGGER.log(Level.FINE, "Failed to link " + source + " to " + target + ", copying it", e);
+            Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+    }
+
+    /**
+     * Remembers the stored files referenced by the build that produced them.
+     */
+    public static class StoredFilesAction extends InvisibleAction {
+        private final Set<String> digests = new TreeSet<>();
+
+        public synchronized Set<String> getDigests() {
+            return new TreeSet<>(digests);
+        }
+
+        synchronized void add(String digest) {
+            digests.add(digest);
+        }
+    }
+
+    /**
+     * Releases the references of deleted builds.
+     */
+    @Extension
+    public static class ReleaseOnDelete extends RunListener<Run<?, ?>> {
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            StoredFilesAction stored = run.getAction(StoredFilesAction.class);
+            if (stored != null) {
+                for (String digest : stored.getDigests()) {
+                    get().release(digest, run);
+                }
+            }
+            for (String digest : getStoredDigests(run.getActions(ParametersAction.class))) {
+                get().release(digest, queueReference(run.getQueueId()));
+                // taken by the build itself when it was queued before queue items held the reference
+                get().release(digest, run);
+            }
+        }
+    }
+
+    /**
+     * Takes a reference for every build with stored files as it is queued, which happens while the triggering build
+     * still holds its own, so the content stays in the store even if the triggering build is deleted before the
+     * downstream build starts. Drops it again if the queued build is cancelled.
+     */
+    @Extension
+    public static class ReferenceQueuedBuilds extends QueueListener {
+        @Override
+        public void onEnterWaiting(Queue.WaitingItem wi) {
+            for (String digest : getStoredDigests(wi.getActions(ParametersAction.class))) {
+                try {
+                    get().acquire(digest, queueReference(wi.getId()), "queue item " + wi.getId());
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to reference stored file " + digest + " for " + wi, e);
+                }
+            }
+        }
+
+        @Override
+        public void onLeft(Queue.LeftItem li) {
+            if (li.isCancelled()) {
+                for (String digest : getStoredDigests(li.getActions(ParametersAction.class))) {
+                    get().release(digest, queueReference(li.getId()));
+                }
+            }
+        }
+    }
+
+    private static String queueReference(long queueId) {
+        return "queue-" + queueId;
+    }
+
+    private static Set<String> getStoredDigests(List<ParametersAction> actions) {
+        Set<String> digests = new TreeSet<>();
+        for (ParametersAction params : actions) {
+            for (ParameterValue value : params.getParameters()) {
+                if (value instanceof StoredFileParameterValue) {
+                    digests.add(((StoredFileParameterValue) value).getDigest());
+                }
+            }
+        }
+        return digests;
+    }
+}
@@ -0,0 +1,50 @@
+package hudson.plugins.parameterizedtrigger;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import java.util.concurrent.atomic.AtomicLong;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Counts the changes to which item a name resolves to, so project names resolved earlier can be reused as long as the
+ * count did not change.
+ */
+@Restricted(NoExternalUse.class)
+public final class ItemGeneration {
+
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private ItemGeneration() {}
+
+    /**
+     * @return a number changing whenever an item is loaded, created, renamed, moved or deleted
+     */
+    public static long get() {
+        return GENERATION.get();
+    }
+
+    @Extension
+    public static final class ItemListenerImpl extends ItemListener {
+        @Override
+        public void onLoaded() {
+            GENERATION.incrementAndGet();
+        }
+
+        @Override
+        public void onCreated(Item item) {
+            GENERATION.incrementAndGet();
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            GENERATION.incrementAndGet();
+        }
+
+        @Override
+        public void onDeleted(Item item) {
+            GENERATION.incrementAndGet();
+        }
+    }
+}
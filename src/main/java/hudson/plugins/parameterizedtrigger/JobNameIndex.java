@@ -0,0 +1,228 @@
+package hudson.plugins.parameterizedtrigger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.EditDistance;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Full names of all the jobs, sorted, so {@link BuildTriggerConfig.DescriptorImpl#doAutoCompleteProjects} only looks
+ * at the jobs whose name starts with what was typed instead of going through all of them on every keystroke, and
+ * {@link BuildTriggerConfig.DescriptorImpl#doCheckProjects} suggests a nearby name without going through all the
+ * items of the instance.
+ *
+ * <p>
+ * The index is built the first time it is needed, then kept up to date as jobs are created, moved or deleted.
+ */
+@Restricted(NoExternalUse.class)
+public final class JobNameIndex {
+
+    private static final JobNameIndex INSTANCE = new JobNameIndex();
+
+    /**
+     * Milliseconds {@link #findNearest(String)} may spend comparing names.
+     */
+    private static final long NEAREST_TIME_LIMIT =
+            SystemProperties.getLong(JobNameIndex.class.getName() + ".nearestTimeLimit", 200L);
+
+    /**
+     * Recent results of {@link #findNearest(String)} that compared all the names, by user, {@link ItemGeneration} and
+     * name, as validation runs again every time a field loses focus.
+     */
+    private final Cache<String, String> nearest = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+    private final NavigableSet<String> names = new ConcurrentSkipListSet<>();
+
+    private volatile boolean built;
+
+    private JobNameIndex() {}
+
+    public static JobNameIndex get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param prefix start of full names
+     * @return the full names of the jobs starting with {@code prefix}, in order
+     */
+    @NonNull
+    public Iterable<String> getNamesStartingWith(@NonNull String prefix) {
+        build();
+        return names.subSet(prefix, true, prefix + "\uffff", true);
+    }
+
+    /**
+     * Like {@link hudson.model.Items#findNearest(Class, String, ItemGroup)} from the root, which computes the edit
+     * distance to the name of every job. The names starting like {@code name} are compared first, and the search
+     * stops after {@link #NEAREST_TIME_LIMIT}, returning the nearest job found so far.
+     *
+     * @param name full name of a job that does not exist
+     * @return the readable job with the nearest full name, if any
+     */
+    @CheckForNull
+    public Job<?, ?> findNearest(@NonNull String name) {
+        String key = Jenkins.getAuthentication2().getName() + '\n' + ItemGeneration.get() + '\n' + name;
+        String fullName = nearest.getIfPresent(key);
+        if (fullName == null) {
+            Nearest found = computeNearest(name);
+            fullName = found.fullName;
+            // a search cut short may find a nearer job next time, when the JVM is less busy
+            if (found.complete) {
+                nearest.put(key, fullName);
+            }
+        }
+        return fullName.isEmpty() ? null : Jenkins.get().getItemByFullName(fullName, Job.class);
+    }
+
+    /**
+     * Result of {@link #computeNearest(String)}.
+     */
+    private static final class Nearest {
+        /**
+         * Full name of the nearest job found, empty if none.
+         */
+        final String fullName;
+
+        /**
+         * Whether all the names were compared before the time limit.
+         */
+        final boolean complete;
+
+        Nearest(String fullName, boolean complete) {
+            this.fullName = fullName;
+            this.complete = complete;
+        }
+    }
+
+    private Nearest computeNearest(String name) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(NEAREST_TIME_LIMIT);
+        String first = name.isEmpty() ? "" : name.substring(0, 1);
+        String best = "";
+        int bestDistance = Integer.MAX_VALUE;
+        for (Iterable<String> candidates : List.of(getNamesStartingWith(first), names)) {
+            for (String candidate : candidates) {
+                if (System.nanoTime() > deadline) {
+                    return new Nearest(best, false);
+                }
+                if (candidates == names && candidate.startsWith(first)) {
+                    // already compared
+                    continue;
+                }
+                int distance = EditDistance.editDistance(name, candidate);
+                if (distance < bestDistance && Jenkins.get().getItemByFullName(candidate, Job.class) != null) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return new Nearest(best, true);
+    }
+
+    /**
+     * @param value what was typed, relative to {@code context}
+     * @param context the container relative names are resolved from
+     * @return the start of the full names of all the jobs whose name relative to {@code context} may start with
+     *     {@code value}, empty when that may be any job, as for an empty {@code value} within a folder
+     */
+    @NonNull
+    public static String getFullNamePrefix(@NonNull String value, @NonNull ItemGroup<?> context) {
+        String base = context.getFullName();
+        String rest = value;
+        while (rest.startsWith("../")) {
+            base = getParentName(base);
+            rest = rest.substring(3);
+        }
+        if (rest.isEmpty() || rest.startsWith(".")) {
+            // nothing typed after going up, or an incomplete "..", so the jobs above reached with more "../" also match
+            return "";
+        }
+        return base.isEmpty() ? rest : base + "/" + rest;
+    }
+
+    private static String getParentName(String fullName) {
+        int slash = fullName.lastIndexOf('/');
+        return slash < 0 ? "" : fullName.substring(0, slash);
+    }
+
+    private synchronized void build() {
+        if (built) {
+            return;
+        }
+        List<Job> jobs;
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            jobs = Jenkins.get().getAllItems(Job.class);
+        }
+        for (Job<?, ?> job : jobs) {
+            names.add(job.getFullName());
+        }
+        built = true;
+    }
+
+    private synchronized void add(String fullName) {
+        if (built) {
+            names.add(fullName);
+        }
+    }
+
+    private synchronized void remove(String fullName, boolean withChildren) {
+        if (built) {
+            names.remove(fullName);
+            if (withChildren) {
+                names.subSet(fullName + "/", true, fullName + "/\uffff", true).clear();
+            }
+        }
+    }
+
+    private synchronized void reset() {
+        names.clear();
+        built = false;
+    }
+
+    /**
+     * Keeps the index up to date when jobs are created, moved or deleted.
+     */
+    @Extension
+    public static final class ItemListenerImpl extends ItemListener {
+        @Override
+        public void onLoaded() {
+            get().reset();
+        }
+
+        @Override
+        public void onCreated(Item item) {
+            if (item instanceof Job) {
+                get().add(item.getFullName());
+            }
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            // also called for every item within a moved folder
+            if (item instanceof Job) {
+                get().remove(oldFullName, false);
+                get().add(newFullName);
+            }
+        }
+
+        @Override
+        public void onDeleted(Item item) {
+            get().remove(item.getFullName(), item instanceof ItemGroup);
+        }
+    }
+}
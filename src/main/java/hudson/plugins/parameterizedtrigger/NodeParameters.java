@@ -11,6 +11,8 @@ import hudson.model.Descriptor;
 import hudson.model.Label;
 import hudson.model.TaskListener;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
 import jenkins.model.Jenkins;
 import org.kohsuke.stapler.DataBoundConstructor;
 
@@ -41,6 +43,11 @@ public class NodeParameters extends AbstractBuildParameters {
         return new NodeAction(nodeLabel);
     }
 
+    @Override
+    public Set<String> getReferencedVariables() {
+        return Collections.emptySet();
+    }
+
     @Extension
     public static class DescriptorImpl extends Descriptor<AbstractBuildParameters> {
         @Override
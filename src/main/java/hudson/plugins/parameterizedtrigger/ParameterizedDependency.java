@@ -1,5 +1,7 @@
 package hudson.plugins.parameterizedtrigger;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
 import hudson.model.Action;
@@ -14,6 +16,11 @@ import java.util.List;
  * @author Alan Harder
  */
 public class ParameterizedDependency extends Dependency {
+    /**
+     * Dependencies still in the graph, so rebuilding it hands out the same instances again.
+     */
+    private static final Interner<ParameterizedDependency> DEPENDENCIES = Interners.newWeakInterner();
+
     private final BuildTriggerConfig config;
 
     public ParameterizedDependency(AbstractProject upstream, AbstractProject downstream, BuildTriggerConfig config) {
@@ -25,7 +32,16 @@ public class ParameterizedDependency extends Dependency {
             AbstractProject upstream, AbstractProject downstream, BuildTriggerConfig config, DependencyGraph graph) {
         // Keeping graph.addDependency() call in this class so classloader
         // won't look for DependencyGraph.Dependency when running on older Hudson
-        graph.addDependency(new ParameterizedDependency(upstream, downstream, config));
+        graph.addDependency(intern(new ParameterizedDependency(upstream, downstream, config)));
+    }
+
+    /**
+     * @return the dependency equal to {@code dependency} already in use, or {@code dependency} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends ParameterizedDependency> T intern(T dependency) {
+        // equal dependencies are of the same class
+        return (T) DEPENDENCIES.intern(dependency);
     }
 
     @Override
@@ -35,19 +51,25 @@ public class ParameterizedDependency extends Dependency {
 
         final ParameterizedDependency that = (ParameterizedDependency) obj;
         return this.getUpstreamProject() == that.getUpstreamProject()
-                || this.getDownstreamProject() == that.getDownstreamProject()
-                || this.config == that.config;
+                && this.getDownstreamProject() == that.getDownstreamProject()
+                && this.config == that.config;
     }
 
     @Override
     public int hashCode() {
         int hash = 7;
-        hash = 23 * hash + this.getUpstreamProject().hashCode();
-        hash = 23 * hash + this.getDownstreamProject().hashCode();
-        hash = 23 * hash + this.config.hashCode();
+        hash = 23 * hash + System.identityHashCode(this.getUpstreamProject());
+        hash = 23 * hash + System.identityHashCode(this.getDownstreamProject());
+        hash = 23 * hash + System.identityHashCode(this.config);
         return hash;
     }
 
+    private void supersede(AbstractBuild build, TaskListener listener, List<Action> actions) {
+        if (config.isSupersedeQueuedBuilds()) {
+            actions.add(SupersedableTriggerAction.supersede(build, getDownstreamProject(), config, listener));
+        }
+    }
+
     @Override
     public boolean shouldTriggerBuild(AbstractBuild build, TaskListener listener, List<Action> actions) {
         if (!config.getCondition().isMet(build.getResult())) {
@@ -58,13 +80,15 @@ public class ParameterizedDependency extends Dependency {
             return false;
         }
         try {
-            List<Action> actionList = config.getBaseActions(build, listener);
+            List<Action> actionList = config.getSharedBaseActions(build, listener);
             if (!actionList.isEmpty()) {
                 actions.addAll(config.getBuildActions(actionList, getDownstreamProject()));
+                supersede(build, listener, actions);
                 return true;
             }
 
             if (config.getTriggerWithNoParameters()) {
+                supersede(build, listener, actions);
                 return true;
             }
             listener.getLogger()
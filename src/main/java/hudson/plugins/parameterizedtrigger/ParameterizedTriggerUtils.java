@@ -30,8 +30,12 @@ import hudson.model.ParametersAction;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import jenkins.util.VirtualFile;
 import org.apache.commons.io.IOUtils;
 
@@ -41,6 +45,11 @@ import org.apache.commons.io.IOUtils;
 public class ParameterizedTriggerUtils {
     public static final String DISABLE_ACTION_VIEWS_KEY = "ptp.disableActionViews";
 
+    /**
+     * References {@link hudson.EnvVars#expand(String)} may replace, {@code ${NAME}} or {@code $NAME}.
+     */
+    private static final Pattern VARIABLE = Pattern.compile("\\$\\{([^}]*)\\}|\\$([A-Za-z0-9_]+)");
+
     /**
      * Load properties from string.
      *
@@ -79,6 +88,23 @@ public class ParameterizedTriggerUtils {
         }
     }
 
+    /**
+     * Names of the variables referenced in a string that will be expanded.
+     *
+     * @param s string to look into, may be null
+     * @return names of the variables
+     */
+    public static Set<String> getReferencedVariables(String s) {
+        Set<String> names = new HashSet<>();
+        if (s != null) {
+            Matcher m = VARIABLE.matcher(s);
+            while (m.find()) {
+                names.add(m.group(1) != null ? m.group(1) : m.group(2));
+            }
+        }
+        return names;
+    }
+
     public static ParametersAction mergeParameters(ParametersAction base, ParametersAction overlay) {
         LinkedHashMap<String, ParameterValue> params = new LinkedHashMap<>();
         for (ParameterValue param : base.getParameters()) params.put(param.getName(), param);
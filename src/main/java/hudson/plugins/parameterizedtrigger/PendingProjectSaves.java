@@ -0,0 +1,116 @@
+package hudson.plugins.parameterizedtrigger;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Project;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Saves the projects {@link Plugin.RenameListener} changed, shortly after the change and once per project.
+ *
+ * <p>
+ * Moving a folder or renaming many jobs at once fires one event per job. Each event may change the same triggering
+ * projects, which are then saved once for all of them instead of once per event, outside of the thread doing the
+ * rename.
+ */
+@Restricted(NoExternalUse.class)
+public final class PendingProjectSaves {
+
+    private static final Logger LOGGER = Logger.getLogger(PendingProjectSaves.class.getName());
+
+    /**
+     * Milliseconds to wait for more changes before saving.
+     */
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Can be changed from the script console")
+    public static long DELAY = SystemProperties.getLong(PendingProjectSaves.class.getName() + ".delay", 500L);
+
+    private static final PendingProjectSaves INSTANCE = new PendingProjectSaves();
+
+    private final Set<Project<?, ?>> pending = new LinkedHashSet<>();
+
+    private boolean scheduled;
+
+    private PendingProjectSaves() {}
+
+    public static PendingProjectSaves get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Saves {@code p} soon, along with the other projects changed meanwhile.
+     */
+    public synchronized void save(@NonNull Project<?, ?> p) {
+        pending.add(p);
+        if (!scheduled) {
+            scheduled = true;
+            Timer.get().schedule(this::flush, DELAY, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Saves the pending projects now, except those deleted meanwhile, which saving would bring back.
+     */
+    public void flush() {
+        List<Project<?, ?>> projects;
+        synchronized (this) {
+            projects = new ArrayList<>(pending);
+            pending.clear();
+            scheduled = false;
+        }
+        try (ACLContext ctx = ACL.as2(ACL.SYSTEM2)) {
+            for (Project<?, ?> p : projects) {
+                // also catches projects deleted along with a folder
+                if (Jenkins.get().getItemByFullName(p.getFullName()) != p) {
+                    LOGGER.log(Level.FINE, "Not saving {0}, which was deleted", p.getFullName());
+                    continue;
+                }
+                try {
+                    p.save();
+                } catch (IOException e) {
+                    LOGGER.log(
+                            Level.WARNING,
+                            "Failed to persist project setting of " + p.getFullName()
+                                    + " after jobs were renamed or deleted",
+                            e);
+                }
+            }
+        }
+    }
+
+    private synchronized void forget(Item item) {
+        pending.remove(item);
+    }
+
+    /**
+     * Forgets the changes to deleted projects, and does not lose the pending changes when Jenkins stops.
+     */
+    @Extension
+    public static final class ItemListenerImpl extends ItemListener {
+        @Override
+        public void onDeleted(Item item) {
+            get().forget(item);
+        }
+
+        @Override
+        public void onBeforeShutdown() {
+            get().flush();
+        }
+    }
+}
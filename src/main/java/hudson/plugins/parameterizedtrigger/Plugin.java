@@ -38,7 +38,7 @@ public class Plugin extends hudson.Plugin {
             String full = context.getFullName().isEmpty() ? "" : context.getFullName() + "/";
             String fullOldName = full + oldName;
             String fullNewName = full + newName;
-            for (Project<?, ?> p : Jenkins.get().getAllItems(Project.class)) {
+            for (Project<?, ?> p : TriggerReferenceIndex.get().getReferencing(fullOldName)) {
                 boolean changed = false;
                 // iterate over post build triggers
                 for (BuildTrigger bt : p.getPublishersList().getAll(BuildTrigger.class)) {
@@ -58,25 +58,17 @@ public class Plugin extends hudson.Plugin {
                     changed |= renameInConditionalBuildStep(p, oldName, newName);
                 }
 
-                // if something changed, save the project
+                // if something changed, save the project, once for all the renames happening meanwhile
                 if (changed) {
-                    try {
-                        p.save();
-                    } catch (IOException e) {
-                        Logger.getLogger(RenameListener.class.getName())
-                                .log(
-                                        Level.WARNING,
-                                        "Failed to persist project setting during rename from " + fullOldName + " to "
-                                                + fullNewName,
-                                        e);
-                    }
+                    TriggerReferenceIndex.get().update(p);
+                    PendingProjectSaves.get().save(p);
                 }
             }
         }
 
         @Override
         public void onDeleted(Item item) {
-            for (Project<?, ?> p : Jenkins.get().getAllItems(Project.class)) {
+            for (Project<?, ?> p : TriggerReferenceIndex.get().getReferencing(item.getFullName())) {
                 String oldName = item.getFullName();
                 boolean changed = false;
                 // iterate over post build triggers
@@ -124,7 +116,8 @@ public class Plugin extends hudson.Plugin {
                                 p.getBuildersList().remove(tb);
                             }
                         }
-                        p.save();
+                        TriggerReferenceIndex.get().update(p);
+                        PendingProjectSaves.get().save(p);
                     } catch (IOException e) {
                         Logger.getLogger(RenameListener.class.getName())
                                 .log(Level.WARNING, "Failed to persist project setting during remove of " + oldName, e);
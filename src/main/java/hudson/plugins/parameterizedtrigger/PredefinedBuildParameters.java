@@ -12,9 +12,11 @@ import hudson.model.TaskListener;
 import hudson.model.TextParameterValue;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 public class PredefinedBuildParameters extends AbstractBuildParameters {
@@ -52,6 +54,21 @@ public class PredefinedBuildParameters extends AbstractBuildParameters {
         return new ParametersAction(values);
     }
 
+    @Override
+    public Set<String> getReferencedVariables() {
+        Properties p;
+        try {
+            p = ParameterizedTriggerUtils.loadProperties(getProperties());
+        } catch (IOException e) {
+            return null;
+        }
+        Set<String> names = new HashSet<>();
+        for (Object value : p.values()) {
+            names.addAll(ParameterizedTriggerUtils.getReferencedVariables(value.toString()));
+        }
+        return names;
+    }
+
     public String getProperties() {
         return properties;
     }
@@ -0,0 +1,99 @@
+package hudson.plugins.parameterizedtrigger;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.FileParameterValue;
+import hudson.tasks.BuildWrapper;
+import java.io.File;
+import java.io.IOException;
+import jenkins.util.SystemProperties;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * {@link FileParameterValue} whose content lives in the {@link FileParameterStore}.
+ *
+ * Instead of copying the file into its build directory, the downstream build hard links the stored content there. It
+ * holds a reference on that content from the time it is queued. The workspace still gets a regular copy.
+ */
+@Restricted(NoExternalUse.class)
+public class StoredFileParameterValue extends FileParameterValue {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Same as {@code FileParameterValue.FOLDER_NAME}, where the build keeps its file parameters.
+     */
+    private static final String FOLDER_NAME = "fileParameters";
+
+    /**
+     * Same escape hatch as {@code FileParameterValue.ALLOW_FOLDER_TRAVERSAL_OUTSIDE_WORKSPACE}.
+     */
+    private static final boolean ALLOW_FOLDER_TRAVERSAL_OUTSIDE_WORKSPACE = SystemProperties.getBoolean(
+            FileParameterValue.class.getName() + ".allowFolderTraversalOutsideWorkspace");
+
+    private final String digest;
+
+    /**
+     * @param file the copy in the triggering build, used as is if the content is no longer in the store
+     */
+    public StoredFileParameterValue(String name, File file, String originalFileName, String digest) {
+        super(name, file, originalFileName);
+        this.digest = digest;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && digest.equals(((StoredFileParameterValue) obj).digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + digest.hashCode();
+    }
+
+    @Override
+    public BuildWrapper createBuildWrapper(AbstractBuild<?, ?> build) {
+        final BuildWrapper fallback = super.createBuildWrapper(build);
+        return new BuildWrapper() {
+            @Override
+            public Environment setUp(AbstractBuild build, Launcher launcher, BuildListener listener)
+                    throws IOException, InterruptedException {
+                String location = getLocation();
+                File blob = location == null ? null : FileParameterStore.get().getBlob(digest);
+                if (blob == null) {
+                    // content no longer in the store, let the core copy the file it was given
+                    return fallback.setUp(build, launcher, listener);
+                }
+
+                FilePath workspace = build.getWorkspace();
+                if (workspace == null) {
+                    throw new IllegalStateException("The workspace should be created when setUp method is called");
+                }
+                // as the core does, the location must not escape the workspace nor the build directory
+                if (!ALLOW_FOLDER_TRAVERSAL_OUTSIDE_WORKSPACE && !workspace.isDescendant(location)) {
+                    listener.error("Rejecting file path escaping base directory with relative path: " + location);
+                    // force the build to fail
+                    return null;
+                }
+                listener.getLogger().println("Copying file to " + location);
+                FilePath locationFilePath = workspace.child(location);
+                locationFilePath.getParent().mkdirs();
+                if (locationFilePath.exists() && !locationFilePath.isDirectory()) {
+                    locationFilePath.delete();
+                }
+                locationFilePath.copyFrom(new FilePath(blob));
+
+                File underBuild = new File(new File(build.getRootDir(), FOLDER_NAME), location);
+                underBuild.getParentFile().mkdirs();
+                FileParameterStore.link(blob.toPath(), underBuild.toPath());
+                return new Environment() {};
+            }
+        };
+    }
+}
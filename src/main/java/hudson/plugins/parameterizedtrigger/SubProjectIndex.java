@@ -0,0 +1,148 @@
+package hudson.plugins.parameterizedtrigger;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.XmlFile;
+import hudson.model.Items;
+import hudson.model.Job;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * The sub projects a project triggered recently, recorded when it triggers them.
+ *
+ * <p>
+ * {@link BuildTriggerConfig#getProjectInfo(hudson.model.AbstractProject)} used to find them by loading the last builds
+ * of the project and computing their environment on every page view. It now reads them from this index, saved as
+ * {@link #FILE_NAME} in the directory of the project, and only goes through old builds for projects which have not
+ * triggered anything since the index exists.
+ */
+@Restricted(NoExternalUse.class)
+public final class SubProjectIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(SubProjectIndex.class.getName());
+
+    static final String FILE_NAME = "parameterized-trigger-subprojects.xml";
+
+    /**
+     * Number of projects remembered for each dynamic project name, like the builds the old lookup went through.
+     */
+    private static final int DYNAMIC_LIMIT = 6;
+
+    /**
+     * Number of triggered projects remembered.
+     */
+    private static final int TRIGGERED_LIMIT = 50;
+
+    private static final Map<Job<?, ?>, SubProjectIndex> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Dynamic project name, as configured, to the full names it resolved to, the most recent last.
+     */
+    private final Map<String, List<String>> dynamic = new LinkedHashMap<>();
+
+    /**
+     * Full names of the triggered projects, the most recent last.
+     */
+    private final List<String> triggered = new ArrayList<>();
+
+    private transient File file;
+
+    /**
+     * @return the index of {@code job}, or null if it never recorded anything
+     */
+    @CheckForNull
+    public static SubProjectIndex getIfRecorded(@NonNull Job<?, ?> job) {
+        SubProjectIndex index = get(job);
+        synchronized (index) {
+            return index.file.exists() ? index : null;
+        }
+    }
+
+    /**
+     * @return the index of {@code job}, empty if it never recorded anything
+     */
+    @NonNull
+    public static SubProjectIndex get(@NonNull Job<?, ?> job) {
+        synchronized (CACHE) {
+            SubProjectIndex index = CACHE.get(job);
+            File file = new File(job.getRootDir(), FILE_NAME);
+            if (index == null || !index.file.equals(file)) {
+                index = load(file);
+                CACHE.put(job, index);
+            }
+            return index;
+        }
+    }
+
+    private static SubProjectIndex load(File file) {
+        SubProjectIndex index = null;
+        XmlFile xml = new XmlFile(Items.XSTREAM2, file);
+        if (xml.exists()) {
+            try {
+                index = (SubProjectIndex) xml.read();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to read " + file, e);
+            }
+        }
+        if (index == null) {
+            index = new SubProjectIndex();
+        }
+        index.file = file;
+        return index;
+    }
+
+    /**
+     * Records that the dynamic project name {@code name} resolved to the project {@code fullName}.
+     */
+    public synchronized void addDynamic(@NonNull String name, @NonNull String fullName) {
+        List<String> names = dynamic.computeIfAbsent(name, k -> new ArrayList<>());
+        addRecent(names, fullName, DYNAMIC_LIMIT);
+    }
+
+    /**
+     * Records that the project {@code fullName} was triggered.
+     */
+    public synchronized void addTriggered(@NonNull String fullName) {
+        addRecent(triggered, fullName, TRIGGERED_LIMIT);
+    }
+
+    private static void addRecent(List<String> names, String name, int limit) {
+        names.remove(name);
+        names.add(name);
+        while (names.size() > limit) {
+            names.remove(0);
+        }
+    }
+
+    /**
+     * @return full names the dynamic project name {@code name} resolved to recently
+     */
+    @NonNull
+    public synchronized List<String> getDynamic(@NonNull String name) {
+        List<String> names = dynamic.get(name);
+        return names != null ? new ArrayList<>(names) : Collections.emptyList();
+    }
+
+    /**
+     * @return full names of the projects triggered recently
+     */
+    @NonNull
+    public synchronized List<String> getTriggered() {
+        return new ArrayList<>(triggered);
+    }
+
+    public synchronized void save() throws IOException {
+        new XmlFile(Items.XSTREAM2, file).write(this);
+    }
+}
@@ -1,16 +1,21 @@
 package hudson.plugins.parameterizedtrigger;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
 import hudson.model.Action;
 import java.util.Collections;
 import java.util.List;
+import jenkins.model.Jenkins;
 
 /**
  * Action added Projects to track what projects are
  * were triggered from the trigger builds on other projects buildstep.
  *
  * Provides a section on the project page indicating the triggered projects.
- * see jobMain.groovy
+ * see jobMain.groovy, which only renders a placeholder filled from panel.groovy
+ * once the page is loaded.
  *
  * @author wolfs
  */
@@ -19,6 +24,14 @@ public class SubProjectsAction implements Action {
     private final AbstractProject<?, ?> project;
     private final List<BlockableBuildTriggerConfig> configs;
 
+    /**
+     * {@link SubProjectData} of each config, by user as it only lists what they can read, {@link ItemGeneration} and
+     * last build of the project, so it is computed again once jobs change or the project builds again. Only the
+     * entries used most recently are kept.
+     */
+    private final Cache<String, SubProjectData[]> projectInfo =
+            CacheBuilder.newBuilder().maximumSize(100).build();
+
     public SubProjectsAction(AbstractProject<?, ?> project, List<BlockableBuildTriggerConfig> configs) {
         this.project = project;
         this.configs = configs;
@@ -34,9 +47,12 @@ public class SubProjectsAction implements Action {
         return null;
     }
 
+    /**
+     * Not shown in the side panel, only there for jobMain.groovy to fetch the panel.
+     */
     @Override
     public String getUrlName() {
-        return null;
+        return "subProjects";
     }
 
     public List<BlockableBuildTriggerConfig> getConfigs() {
@@ -50,6 +66,29 @@ public class SubProjectsAction implements Action {
         return Collections.emptyList();
     }
 
+    /**
+     * {@link BuildTriggerConfig#getProjectInfo(AbstractProject)}, computed once per user until jobs change or the
+     * project builds again.
+     */
+    public SubProjectData getProjectInfo(BlockableBuildTriggerConfig config) {
+        int index = configs.indexOf(config);
+        if (index < 0) {
+            return config.getProjectInfo(project);
+        }
+
+        AbstractBuild<?, ?> lastBuild = project.getLastBuild();
+        int buildNumber = lastBuild != null ? lastBuild.getNumber() : 0;
+        String key = Jenkins.getAuthentication2().getName() + '\n' + ItemGeneration.get() + '\n' + buildNumber;
+        SubProjectData[] data =
+                projectInfo.asMap().computeIfAbsent(key, k -> new SubProjectData[configs.size()]);
+        synchronized (data) {
+            if (data[index] == null) {
+                data[index] = config.getProjectInfo(project);
+            }
+            return data[index];
+        }
+    }
+
     public AbstractProject<?, ?> getProject() {
         return project;
     }
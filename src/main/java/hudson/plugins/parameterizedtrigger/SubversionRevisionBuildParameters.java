@@ -9,7 +9,9 @@ import hudson.scm.RevisionParameterAction;
 import hudson.scm.SubversionSCM.SvnInfo;
 import hudson.scm.SubversionTagAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import org.kohsuke.stapler.DataBoundConstructor;
 
 public class SubversionRevisionBuildParameters extends AbstractBuildParameters {
@@ -58,6 +60,11 @@ public class SubversionRevisionBuildParameters extends AbstractBuildParameters {
         return (infos.size() == 0) ? null : new RevisionParameterAction(infos);
     }
 
+    @Override
+    public Set<String> getReferencedVariables() {
+        return Collections.emptySet();
+    }
+
     @Extension
     public static class DescriptorImpl extends Descriptor<AbstractBuildParameters> {
 
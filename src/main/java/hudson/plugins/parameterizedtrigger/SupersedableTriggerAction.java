@@ -0,0 +1,71 @@
+package hudson.plugins.parameterizedtrigger;
+
+import hudson.console.ModelHyperlinkNote;
+import hudson.model.InvisibleAction;
+import hudson.model.Job;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import jenkins.model.Jenkins;
+
+/**
+ * Marks a build queued by a config with {@link BuildTriggerConfig#isSupersedeQueuedBuilds()}, so newer builds of the
+ * same upstream project can cancel it while it has not started yet.
+ */
+public class SupersedableTriggerAction extends InvisibleAction {
+    private final String upstreamProject;
+    private final int upstreamBuild;
+    private final String projects;
+
+    public SupersedableTriggerAction(String upstreamProject, int upstreamBuild, String projects) {
+        this.upstreamProject = upstreamProject;
+        this.upstreamBuild = upstreamBuild;
+        this.projects = projects;
+    }
+
+    public String getUpstreamProject() {
+        return upstreamProject;
+    }
+
+    public int getUpstreamBuild() {
+        return upstreamBuild;
+    }
+
+    /**
+     * @return the projects to build of the config that triggered, which tells configs of the same project apart
+     */
+    public String getProjects() {
+        return projects;
+    }
+
+    private boolean isSupersededBy(SupersedableTriggerAction newer) {
+        return upstreamProject.equals(newer.upstreamProject)
+                && projects.equals(newer.projects)
+                && upstreamBuild < newer.upstreamBuild;
+    }
+
+    /**
+     * Cancels the builds of {@code project} still in the queue that older builds of the project of {@code build}
+     * triggered with {@code config}.
+     *
+     * @return the action to queue the new build of {@code project} with
+     */
+    static SupersedableTriggerAction supersede(
+            Run<?, ?> build, Job<?, ?> project, BuildTriggerConfig config, TaskListener listener) {
+        SupersedableTriggerAction action = new SupersedableTriggerAction(
+                build.getParent().getFullName(), build.getNumber(), config.getProjects());
+        if (project instanceof Queue.Task) {
+            Queue queue = Jenkins.get().getQueue();
+            for (Queue.Item item : queue.getItems((Queue.Task) project)) {
+                SupersedableTriggerAction queued = item.getAction(SupersedableTriggerAction.class);
+                if (queued != null && queued.isSupersededBy(action) && queue.cancel(item)) {
+                    listener.getLogger()
+                            .println(Plugin.LOG_TAG + " Cancelled the queued build of "
+                                    + ModelHyperlinkNote.encodeTo(project) + " triggered by " + queued.upstreamProject
+                                    + " #" + queued.upstreamBuild);
+                }
+            }
+        }
+        return action;
+    }
+}
@@ -209,6 +209,7 @@ public class TriggerBuilder extends Builder implements DependencyDeclarer {
             throw new IOException(e); // can't happen, I think.
         }
 
+        BuildInfoExporterAction.exportFile(build);
         return buildStepResult;
     }
 
@@ -241,9 +242,10 @@ public class TriggerBuilder extends Builder implements DependencyDeclarer {
         if (!canDeclare(owner)) return;
 
         for (BuildTriggerConfig config : configs) {
-            List<AbstractProject> projectList = config.getProjectList(owner.getParent(), null);
+            List<AbstractProject> projectList = config.getDependencyProjects(owner);
             for (AbstractProject project : projectList) {
-                graph.addDependency(new TriggerBuilderDependency(owner, project, config));
+                graph.addDependency(
+                        ParameterizedDependency.intern(new TriggerBuilderDependency(owner, project, config)));
             }
         }
     }
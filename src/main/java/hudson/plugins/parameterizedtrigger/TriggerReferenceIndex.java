@@ -0,0 +1,219 @@
+package hudson.plugins.parameterizedtrigger;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.Items;
+import hudson.model.Project;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.conditionalbuildstep.ConditionalBuildStepHelper;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Which projects trigger which jobs, so {@link Plugin.RenameListener} only goes through the projects that reference
+ * a renamed or deleted job instead of all of them.
+ *
+ * <p>
+ * The index is built the first time it is needed, then kept up to date as projects are saved, moved or deleted.
+ * Project names containing variables are not indexed, renaming cannot update them anyway.
+ */
+@Restricted(NoExternalUse.class)
+public final class TriggerReferenceIndex {
+
+    private static final TriggerReferenceIndex INSTANCE = new TriggerReferenceIndex();
+
+    /**
+     * Full name of a triggered job to the projects triggering it.
+     */
+    private final NavigableMap<String, Set<Project<?, ?>>> byTarget = new TreeMap<>();
+
+    /**
+     * Project to the full names of the jobs it triggers.
+     */
+    private final Map<Project<?, ?>, Set<String>> byProject = new HashMap<>();
+
+    private boolean built;
+
+    private TriggerReferenceIndex() {}
+
+    public static TriggerReferenceIndex get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param fullName full name of a job or of a folder
+     * @return the projects triggering the job, or any job within the folder
+     */
+    @NonNull
+    public synchronized List<Project<?, ?>> getReferencing(@NonNull String fullName) {
+        build();
+        Set<Project<?, ?>> projects = new HashSet<>();
+        Set<Project<?, ?>> exact = byTarget.get(fullName);
+        if (exact != null) {
+            projects.addAll(exact);
+        }
+        for (Set<Project<?, ?>> within :
+                byTarget.subMap(fullName + "/", true, fullName + "/\uffff", true).values()) {
+            projects.addAll(within);
+        }
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            // skip projects deleted along with a folder, if the index did not hear about them
+            projects.removeIf(p -> p.getParent().getItem(p.getName()) != p);
+        }
+        return new ArrayList<>(projects);
+    }
+
+    private void build() {
+        if (built) {
+            return;
+        }
+        List<Project> projects;
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            projects = Jenkins.get().getAllItems(Project.class);
+        }
+        for (Project<?, ?> p : projects) {
+            index(p);
+        }
+        built = true;
+    }
+
+    /**
+     * Indexes {@code p} again, if the index is built.
+     */
+    synchronized void update(@NonNull Project<?, ?> p) {
+        if (built) {
+            remove(p);
+            index(p);
+        }
+    }
+
+    /**
+     * Forgets {@code item}, if the index is built.
+     */
+    synchronized void remove(@NonNull Item item) {
+        Set<String> targets = byProject.remove(item);
+        if (targets == null) {
+            return;
+        }
+        for (String target : targets) {
+            Set<Project<?, ?>> projects = byTarget.get(target);
+            if (projects != null) {
+                projects.remove(item);
+                if (projects.isEmpty()) {
+                    byTarget.remove(target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets everything, the index is built again when needed.
+     */
+    synchronized void reset() {
+        byTarget.clear();
+        byProject.clear();
+        built = false;
+    }
+
+    private void index(Project<?, ?> p) {
+        Set<String> targets = new HashSet<>();
+        for (BuildTriggerConfig config : getConfigs(p)) {
+            StringTokenizer tokens = new StringTokenizer(config.getProjects(), ",");
+            while (tokens.hasMoreTokens()) {
+                String name = tokens.nextToken().trim();
+                if (!name.isEmpty() && !name.contains("$")) {
+                    targets.add(Items.getCanonicalName(p.getParent(), name));
+                }
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+        byProject.put(p, targets);
+        for (String target : targets) {
+            byTarget.computeIfAbsent(target, k -> new HashSet<>()).add(p);
+        }
+    }
+
+    /**
+     * @return the configs of the triggers of {@code p}, where {@link Plugin.RenameListener} looks for them
+     */
+    static List<BuildTriggerConfig> getConfigs(Project<?, ?> p) {
+        List<BuildTriggerConfig> configs = new ArrayList<>();
+        for (BuildTrigger bt : p.getPublishersList().getAll(BuildTrigger.class)) {
+            configs.addAll(bt.getConfigs());
+        }
+        for (TriggerBuilder tb : p.getBuildersList().getAll(TriggerBuilder.class)) {
+            configs.addAll(tb.getConfigs());
+        }
+        if (Plugin.isConditionalBuildStepInstalled()) {
+            for (TriggerBuilder tb : ConditionalBuildStepHelper.getContainedBuilders(p, TriggerBuilder.class)) {
+                configs.addAll(tb.getConfigs());
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * Keeps the index up to date when projects are created, configured, moved or deleted.
+     */
+    @Extension
+    public static final class ItemListenerImpl extends ItemListener {
+        @Override
+        public void onLoaded() {
+            get().reset();
+        }
+
+        @Override
+        public void onCreated(Item item) {
+            if (item instanceof Project) {
+                get().update((Project<?, ?>) item);
+            }
+        }
+
+        @Override
+        public void onUpdated(Item item) {
+            onCreated(item);
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            // relative names now resolve to other jobs
+            onCreated(item);
+        }
+
+        @Override
+        public void onDeleted(Item item) {
+            get().remove(item);
+        }
+    }
+
+    /**
+     * Indexes a project again whenever it is saved, which also covers changes made through the API.
+     */
+    @Extension
+    public static final class SaveableListenerImpl extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof Project) {
+                get().update((Project<?, ?>) o);
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package hudson.plugins.parameterizedtrigger.matrix;
+
+import hudson.matrix.Combination;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled combination filter written in a small boolean language that does not need Groovy.
+ *
+ * <pre>
+ * expr       := orExpr
+ * orExpr     := andExpr (("||" | "or") andExpr)*
+ * andExpr    := notExpr (("&amp;&amp;" | "and") notExpr)*
+ * notExpr    := ("!" | "not") notExpr | primary
+ * primary    := "(" expr ")" | "true" | "false" | comparison
+ * comparison := axis ("==" | "!=") value
+ *             | axis ["not"] "in" "[" value ("," value)* "]"
+ * </pre>
+ *
+ * Axis names and values are either bare words or quoted with {@code "} or {@code '}.
+ * Values may contain the {@code *} and {@code ?} wildcards.
+ * An axis that is not part of the combination never equals any value.
+ *
+ * For example: {@code os == linux && jdk in [17, 21] && !(label == "*-arm64")}
+ */
+public final class CombinationExpression {
+
+    private final String text;
+    private final Predicate<Map<String, String>> predicate;
+
+    private CombinationExpression(String text, Predicate<Map<String, String>> predicate) {
+        this.text = text;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Compiles an expression.
+     *
+     * @param text the expression
+     * @return the compiled expression
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public static CombinationExpression parse(String text) {
+        Parser parser = new Parser(text);
+        Predicate<Map<String, String>> predicate = parser.parseExpression();
+        parser.expectEnd();
+        return new CombinationExpression(text, predicate);
+    }
+
+    /**
+     * @param combination the combination to test
+     * @return true if the combination matches this expression
+     */
+    public boolean matches(Combination combination) {
+        return predicate.test(combination);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private static Predicate<Map<String, String>> valueMatcher(String axis, String value) {
+        if (value.indexOf('*') < 0 && value.indexOf('?') < 0) {
+            return c -> value.equals(c.get(axis));
+        }
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char ch : value.toCharArray()) {
+            if (ch == '*' || ch == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(ch == '*' ? ".*" : ".");
+            } else {
+                literal.append(ch);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        Pattern pattern = Pattern.compile(regex.toString(), Pattern.DOTALL);
+        return c -> {
+            String v = c.get(axis);
+            return v != null && pattern.matcher(v).matches();
+        };
+    }
+
+    private static final class Token {
+        enum Type {
+            WORD,
+            QUOTED,
+            SYMBOL,
+            END
+        }
+
+        final Type type;
+        final String value;
+        final int position;
+
+        Token(Type type, String value, int position) {
+            this.type = type;
+            this.value = value;
+            this.position = position;
+        }
+
+        boolean is(String symbolOrKeyword) {
+            return (type == Type.SYMBOL || type == Type.WORD) && value.equals(symbolOrKeyword);
+        }
+    }
+
+    private static final class Parser {
+        private static final String SYMBOL_CHARS = "()[],!=&|\"'";
+
+        private final String text;
+        private final List<Token> tokens = new ArrayList<>();
+        private int index;
+
+        Parser(String text) {
+            this.text = text;
+            tokenize();
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < text.length()) {
+                char ch = text.charAt(i);
+                if (Character.isWhitespace(ch)) {
+                    i++;
+                } else if (text.startsWith("==", i)
+                        || text.startsWith("!=", i)
+                        || text.startsWith("&&", i)
+                        || text.startsWith("||", i)) {
+                    tokens.add(new Token(Token.Type.SYMBOL, text.substring(i, i + 2), i));
+                    i += 2;
+                } else if ("()[],!".indexOf(ch) >= 0) {
+                    tokens.add(new Token(Token.Type.SYMBOL, String.valueOf(ch), i));
+                    i++;
+                } else if (ch == '"' || ch == '\'') {
+                    StringBuilder buf = new StringBuilder();
+                    int start = i++;
+                    while (true) {
+                        if (i >= text.length()) {
+                            throw error("Unterminated string", start);
+                        }
+                        char c = text.charAt(i++);
+                        if (c == ch) {
+                            break;
+                        }
+                        if (c == '\\' && i < text.length()) {
+                            c = text.charAt(i++);
+                        }
+                        buf.append(c);
+                    }
+                    tokens.add(new Token(Token.Type.QUOTED, buf.toString(), start));
+                } else if (SYMBOL_CHARS.indexOf(ch) >= 0) {
+                    throw error("Unexpected '" + ch + "'", i);
+                } else {
+                    int start = i;
+                    while (i < text.length()
+                            && !Character.isWhitespace(text.charAt(i))
+                            && SYMBOL_CHARS.indexOf(text.charAt(i)) < 0) {
+                        i++;
+                    }
+                    tokens.add(new Token(Token.Type.WORD, text.substring(start, i), start));
+                }
+            }
+            tokens.add(new Token(Token.Type.END, "", text.length()));
+        }
+
+        private IllegalArgumentException error(String message, int position) {
+            return new IllegalArgumentException(message + " at position " + position + " in: " + text);
+        }
+
+        private Token peek() {
+            return tokens.get(index);
+        }
+
+        private Token next() {
+            return tokens.get(index++);
+        }
+
+        private boolean accept(String... symbols) {
+            for (String symbol : symbols) {
+                if (peek().is(symbol)) {
+                    index++;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void expect(String symbol) {
+            Token t = next();
+            if (!t.is(symbol)) {
+                throw error("Expected '" + symbol + "'", t.position);
+            }
+        }
+
+        void expectEnd() {
+            Token t = peek();
+            if (t.type != Token.Type.END) {
+                throw error("Unexpected '" + t.value + "'", t.position);
+            }
+        }
+
+        Predicate<Map<String, String>> parseExpression() {
+            Predicate<Map<String, String>> p = parseAnd();
+            while (accept("||", "or")) {
+                p = p.or(parseAnd());
+            }
+            return p;
+        }
+
+        private Predicate<Map<String, String>> parseAnd() {
+            Predicate<Map<String, String>> p = parseNot();
+            while (accept("&&", "and")) {
+                p = p.and(parseNot());
+            }
+            return p;
+        }
+
+        private Predicate<Map<String, String>> parseNot() {
+            if (accept("!", "not")) {
+                return parseNot().negate();
+            }
+            return parsePrimary();
+        }
+
+        private Predicate<Map<String, String>> parsePrimary() {
+            if (accept("(")) {
+                Predicate<Map<String, String>> p = parseExpression();
+                expect(")");
+                return p;
+            }
+            if (accept("true")) {
+                return c -> true;
+            }
+            if (accept("false")) {
+                return c -> false;
+            }
+            String axis = parseOperand("axis name");
+            if (accept("==")) {
+                return valueMatcher(axis, parseOperand("value"));
+            }
+            if (accept("!=")) {
+                return valueMatcher(axis, parseOperand("value")).negate();
+            }
+            boolean negate = accept("not");
+            if (accept("in")) {
+                Predicate<Map<String, String>> p = parseValueSet(axis);
+                return negate ? p.negate() : p;
+            }
+            Token t = peek();
+            throw error(negate ? "Expected 'in'" : "Expected '==', '!=' or 'in'", t.position);
+        }
+
+        private Predicate<Map<String, String>> parseValueSet(String axis) {
+            expect("[");
+            Predicate<Map<String, String>> p = valueMatcher(axis, parseOperand("value"));
+            while (accept(",")) {
+                p = p.or(valueMatcher(axis, parseOperand("value")));
+            }
+            expect("]");
+            return p;
+        }
+
+        private String parseOperand(String what) {
+            Token t = next();
+            if (t.type != Token.Type.WORD && t.type != Token.Type.QUOTED) {
+                throw error("Expected " + what, t.position);
+            }
+            return t.value;
+        }
+    }
+}
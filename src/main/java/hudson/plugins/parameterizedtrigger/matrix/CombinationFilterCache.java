@@ -0,0 +1,172 @@
+package hudson.plugins.parameterizedtrigger.matrix;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import hudson.Util;
+import hudson.matrix.AxisList;
+import hudson.matrix.Combination;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.RejectedAccessException;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.groovy.GroovySandbox;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelist;
+import org.jenkinsci.plugins.scriptsecurity.scripts.ApprovalContext;
+import org.jenkinsci.plugins.scriptsecurity.scripts.ScriptApproval;
+import org.kohsuke.accmod.Restricted;
+import org.kohsuke.accmod.restrictions.NoExternalUse;
+
+/**
+ * Evaluates combination filters and keeps the compiled filters in bounded LRU caches keyed by the filter text.
+ *
+ * <p>
+ * Groovy filters behave like {@link Combination#evalGroovyExpression(AxisList, String)}. Scripts are wrapped, compiled
+ * and run the way matrix-project's {@code FilterScript} does: within {@code use(BooleanCategory)} so that
+ * {@code a.implies(b)} works, with the secure compiler configuration of script-security and inside the
+ * {@link GroovySandbox}, so the same whitelists and approvals apply as for the matrix project filter. Rejected
+ * signatures are reported to {@link ScriptApproval} for an administrator to approve.
+ * {@link CombinationFilterSyntax#SIMPLE} filters are compiled into {@link CombinationExpression}s.
+ */
+@Restricted(NoExternalUse.class)
+public final class CombinationFilterCache {
+
+    private static final Logger LOGGER = Logger.getLogger(CombinationFilterCache.class.getName());
+
+    private static final int CACHE_SIZE =
+            SystemProperties.getInteger(CombinationFilterCache.class.getName() + ".size", 256);
+
+    /**
+     * Marker for filters that could not be compiled, these are handed to
+     * {@link Combination#evalGroovyExpression(AxisList, String)} so that errors surface exactly as before.
+     */
+    private static final Class<? extends Script> UNCOMPILABLE = Script.class;
+
+    /**
+     * Category matrix-project's {@code FilterScript} evaluates filters with, which adds {@code implies}.
+     */
+    private static final String BOOLEAN_CATEGORY = "hudson.matrix.FilterScript.BooleanCategory";
+
+    private static final Map<String, Class<? extends Script>> CACHE = new LruMap<>();
+
+    private static final Map<String, CombinationExpression> EXPRESSIONS = new LruMap<>();
+
+    private CombinationFilterCache() {}
+
+    /**
+     * Evaluates a Groovy {@code filter} against the given combination.
+     *
+     * @param combination combination to test
+     * @param axes axes of the matrix project the combination belongs to
+     * @param filter Groovy filter expression, blank stands for all combinations
+     * @return true if the combination matches the filter
+     */
+    public static boolean evaluate(Combination combination, AxisList axes, String filter) {
+        return evaluate(combination, axes, filter, CombinationFilterSyntax.GROOVY);
+    }
+
+    /**
+     * Evaluates {@code filter} against the given combination.
+     *
+     * @param combination combination to test
+     * @param axes axes of the matrix project the combination belongs to
+     * @param filter filter expression, blank stands for all combinations
+     * @param syntax language of {@code filter}, null for Groovy
+     * @return true if the combination matches the filter
+     */
+    public static boolean evaluate(
+            Combination combination, AxisList axes, String filter, CombinationFilterSyntax syntax) {
+        if (Util.fixEmptyAndTrim(filter) == null) {
+            return true;
+        }
+        return CombinationFilterSyntax.fixNull(syntax).evaluate(combination, axes, filter);
+    }
+
+    static boolean evaluateGroovy(Combination combination, AxisList axes, String filter) {
+        Class<? extends Script> scriptClass = getScriptClass(filter);
+        if (scriptClass == UNCOMPILABLE) {
+            return combination.evalGroovyExpression(axes, filter);
+        }
+
+        Binding binding = new Binding();
+        for (Map.Entry<String, String> e : combination.entrySet()) {
+            binding.setVariable(e.getKey(), e.getValue());
+        }
+        binding.setVariable("index", combination.toModuloIndex(axes));
+        binding.setVariable("uniqueId", combination.toIndex(axes));
+
+        Script script = InvokerHelper.createScript(scriptClass, binding);
+        try (GroovySandbox.Scope scope =
+                new GroovySandbox().withWhitelist(Whitelist.all()).enter()) {
+            return Boolean.TRUE.equals(script.run());
+        } catch (RejectedAccessException x) {
+            throw ScriptApproval.get().accessRejected(x, ApprovalContext.create());
+        }
+    }
+
+    /**
+     * Drops all the compiled filters.
+     */
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+        synchronized (EXPRESSIONS) {
+            EXPRESSIONS.clear();
+        }
+    }
+
+    static CombinationExpression getExpression(String filter) {
+        synchronized (EXPRESSIONS) {
+            CombinationExpression expression = EXPRESSIONS.get(filter);
+            if (expression == null) {
+                expression = CombinationExpression.parse(filter);
+                EXPRESSIONS.put(filter, expression);
+            }
+            return expression;
+        }
+    }
+
+    private static Class<? extends Script> getScriptClass(String filter) {
+        synchronized (CACHE) {
+            Class<? extends Script> scriptClass = CACHE.get(filter);
+            if (scriptClass != null) {
+                return scriptClass;
+            }
+        }
+
+        Class<? extends Script> scriptClass;
+        try {
+            GroovyShell shell = new GroovyShell(
+                    GroovySandbox.createSecureClassLoader(Jenkins.get().getPluginManager().uberClassLoader),
+                    new Binding(),
+                    GroovySandbox.createSecureCompilerConfiguration());
+            scriptClass = shell.parse("use(" + BOOLEAN_CATEGORY + ") {" + filter + "}")
+                    .getClass();
+        } catch (CompilationFailedException e) {
+            LOGGER.log(Level.FINE, "Failed to compile combination filter " + filter, e);
+            scriptClass = UNCOMPILABLE;
+        }
+
+        synchronized (CACHE) {
+            CACHE.put(filter, scriptClass);
+        }
+        return scriptClass;
+    }
+
+    private static final class LruMap<V> extends LinkedHashMap<String, V> {
+        LruMap() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package hudson.plugins.parameterizedtrigger.matrix;
+
+import hudson.matrix.AxisList;
+import hudson.matrix.Combination;
+
+/**
+ * Language a combination filter is written in.
+ */
+public enum CombinationFilterSyntax {
+    GROOVY("Groovy expression") {
+        @Override
+        boolean evaluate(Combination combination, AxisList axes, String filter) {
+            return CombinationFilterCache.evaluateGroovy(combination, axes, filter);
+        }
+    },
+    SIMPLE("Simple expression (==, !=, in, and/or/not, wildcards)") {
+        @Override
+        boolean evaluate(Combination combination, AxisList axes, String filter) {
+            return CombinationFilterCache.getExpression(filter).matches(combination);
+        }
+
+        @Override
+        public void check(String filter) {
+            CombinationExpression.parse(filter);
+        }
+    };
+
+    private final String description;
+
+    CombinationFilterSyntax(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    abstract boolean evaluate(Combination combination, AxisList axes, String filter);
+
+    /**
+     * Checks the filter is well-formed, where this can be done without running it.
+     *
+     * @param filter a non blank filter
+     * @throws IllegalArgumentException if the filter is malformed
+     */
+    public void check(String filter) {}
+
+    /**
+     * @param syntax a possibly null syntax, as read from configurations saved before it existed
+     * @return {@code syntax} or {@link #GROOVY} if it is null
+     */
+    public static CombinationFilterSyntax fixNull(CombinationFilterSyntax syntax) {
+        return syntax != null ? syntax : GROOVY;
+    }
+
+    /**
+     * @param name name of a syntax as submitted by a form, may be null or empty
+     * @return the matching syntax, {@link #GROOVY} if there is none
+     */
+    public static CombinationFilterSyntax fromName(String name) {
+        for (CombinationFilterSyntax syntax : values()) {
+            if (syntax.name().equals(name)) {
+                return syntax;
+            }
+        }
+        return GROOVY;
+    }
+}
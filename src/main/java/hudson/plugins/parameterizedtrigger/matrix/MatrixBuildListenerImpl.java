@@ -16,7 +16,7 @@ public class MatrixBuildListenerImpl extends MatrixBuildListener {
         MatrixSubsetAction a = b.getAction(MatrixSubsetAction.class);
         if (a == null) return true;
 
-        // run the filter and restrict the subset to run
-        return c.getCombination().evalGroovyExpression(b.getParent().getAxes(), a.getFilter());
+        // restrict the subset to run, the filter is resolved once per build
+        return a.isSelected(b, c);
     }
 }
@@ -2,7 +2,13 @@ package hudson.plugins.parameterizedtrigger.matrix;
 
 import hudson.matrix.AxisList;
 import hudson.matrix.Combination;
+import hudson.matrix.MatrixBuild;
+import hudson.matrix.MatrixConfiguration;
+import hudson.matrix.MatrixProject;
 import hudson.model.InvisibleAction;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Restricts the execution of matrix to a subset at runtime.
@@ -11,15 +17,90 @@ import hudson.model.InvisibleAction;
  */
 public class MatrixSubsetAction extends InvisibleAction {
     /**
-     * Filter Groovy expression to be run in {@link Combination#evalGroovyExpression(AxisList, String)}
+     * Filter expression, by default Groovy to be run in {@link Combination#evalGroovyExpression(AxisList, String)}
      */
     private final String filter;
 
+    /**
+     * Language of {@link #filter}, null for Groovy.
+     */
+    private final CombinationFilterSyntax filterSyntax;
+
+    /**
+     * Combinations that match {@link #filter}, per matrix build, as the same action may be handed to several downstream
+     * projects with different axes.
+     */
+    private transient Map<MatrixBuild, Subset> subsets;
+
     public MatrixSubsetAction(String filter) {
+        this(filter, CombinationFilterSyntax.GROOVY);
+    }
+
+    public MatrixSubsetAction(String filter, CombinationFilterSyntax filterSyntax) {
         this.filter = filter;
+        this.filterSyntax = filterSyntax;
     }
 
     public String getFilter() {
         return filter;
     }
+
+    public CombinationFilterSyntax getFilterSyntax() {
+        return CombinationFilterSyntax.fixNull(filterSyntax);
+    }
+
+    /**
+     * Checks whether a configuration is part of the subset to run.
+     *
+     * The filter is evaluated once for every active configuration of the project the first time this is called for
+     * {@code build}, later calls for the same build are plain lookups.
+     *
+     * @param build the matrix build this action is attached to
+     * @param configuration the configuration about to be built
+     * @return true if the configuration should be built
+     */
+    public synchronized boolean isSelected(MatrixBuild build, MatrixConfiguration configuration) {
+        if (subsets == null) {
+            subsets = new WeakHashMap<>();
+        }
+        MatrixProject project = build.getParent();
+        AxisList axes = project.getAxes();
+        Subset subset = subsets.get(build);
+        if (subset == null) {
+            subset = new Subset();
+            for (MatrixConfiguration c : project.getActiveConfigurations()) {
+                subset.resolve(c.getCombination(), axes);
+            }
+            subsets.put(build, subset);
+        }
+
+        Combination combination = configuration.getCombination();
+        int index = combination.toIndex(axes);
+        if (!subset.resolved.get(index)) {
+            // not an active configuration when the subset was resolved
+            subset.resolve(combination, axes);
+        }
+        return subset.selected.get(index);
+    }
+
+    /**
+     * The subset of one matrix build.
+     */
+    private final class Subset {
+        /**
+         * Combinations that match {@link #filter}, indexed by {@link Combination#toIndex(AxisList)}.
+         */
+        private final BitSet selected = new BitSet();
+
+        /**
+         * Combinations for which {@link #selected} holds a result.
+         */
+        private final BitSet resolved = new BitSet();
+
+        private void resolve(Combination combination, AxisList axes) {
+            int index = combination.toIndex(axes);
+            selected.set(index, CombinationFilterCache.evaluate(combination, axes, filter, filterSyntax));
+            resolved.set(index);
+        }
+    }
 }
@@ -1,14 +1,19 @@
 package hudson.plugins.parameterizedtrigger.matrix;
 
 import hudson.Extension;
+import hudson.Util;
 import hudson.matrix.MatrixConfiguration;
 import hudson.model.AbstractBuild;
 import hudson.model.Action;
 import hudson.model.Descriptor;
 import hudson.model.TaskListener;
 import hudson.plugins.parameterizedtrigger.AbstractBuildParameters;
+import hudson.plugins.parameterizedtrigger.ParameterizedTriggerUtils;
+import hudson.util.FormValidation;
 import java.io.IOException;
+import java.util.Set;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
 
 /**
  * Build parameter that controls which subset of {@link MatrixConfiguration} a downstream build will run.
@@ -17,19 +22,34 @@ import org.kohsuke.stapler.DataBoundConstructor;
  */
 public class MatrixSubsetBuildParameters extends AbstractBuildParameters {
     private final String filter;
+    private final CombinationFilterSyntax filterSyntax;
 
     @DataBoundConstructor
-    public MatrixSubsetBuildParameters(String filter) {
+    public MatrixSubsetBuildParameters(String filter, CombinationFilterSyntax filterSyntax) {
         this.filter = filter;
+        this.filterSyntax = CombinationFilterSyntax.fixNull(filterSyntax);
+    }
+
+    public MatrixSubsetBuildParameters(String filter) {
+        this(filter, CombinationFilterSyntax.GROOVY);
     }
 
     public String getFilter() {
         return filter;
     }
 
+    public CombinationFilterSyntax getFilterSyntax() {
+        return CombinationFilterSyntax.fixNull(filterSyntax);
+    }
+
     @Override
     public Action getAction(AbstractBuild<?, ?> build, TaskListener listener) throws IOException, InterruptedException {
-        return new MatrixSubsetAction(getEnvironment(build, listener).expand(filter));
+        return new MatrixSubsetAction(getEnvironment(build, listener).expand(filter), getFilterSyntax());
+    }
+
+    @Override
+    public Set<String> getReferencedVariables() {
+        return ParameterizedTriggerUtils.getReferencedVariables(filter);
     }
 
     @Extension
@@ -38,5 +58,28 @@ public class MatrixSubsetBuildParameters extends AbstractBuildParameters {
         public String getDisplayName() {
             return Messages.MatrixSubsetBuildParameters_DisplayName();
         }
+
+        public FormValidation doCheckFilter(@QueryParameter String value, @QueryParameter String filterSyntax) {
+            return checkFilter(value, CombinationFilterSyntax.fromName(filterSyntax));
+        }
+    }
+
+    /**
+     * Validates a combination filter that does not contain variables to expand.
+     *
+     * @param filter the filter
+     * @param syntax the language of the filter
+     * @return the validation result
+     */
+    public static FormValidation checkFilter(String filter, CombinationFilterSyntax syntax) {
+        if (Util.fixEmptyAndTrim(filter) == null || filter.contains("$")) {
+            return FormValidation.ok();
+        }
+        try {
+            CombinationFilterSyntax.fixNull(syntax).check(filter);
+        } catch (IllegalArgumentException e) {
+            return FormValidation.error(e.getMessage());
+        }
+        return FormValidation.ok();
     }
 }
@@ -0,0 +1,22 @@
+package hudson.plugins.parameterizedtrigger.BuildInfoExporterAction
+
+// list items for one page of triggered builds, starting at the "start" query parameter
+
+def l = namespace(lib.LayoutTagLib)
+
+def param = request2.getParameter("start")
+def start = param?.isInteger() ? param as int : 0
+
+for (item in my.getTriggeredBuilds(start, my.pageSize)) {
+	li {
+		if (item != null) {
+			a(href:"${rootURL}/${item.project.url}", class:"model-link") {
+				text(item.project.displayName)
+			}
+			a(href:"${rootURL}/${item.url}", class:"model-link") {
+				l.icon(class: "${item.iconColor.iconClassName} icon-sm", alt:"${item.iconColor.description}")
+				text(item.displayName)
+			}
+		}
+	}
+}
@@ -0,0 +1,27 @@
+Behaviour.specify("BUTTON.parameterized-trigger-more", "parameterized-trigger-more", 0, function (button) {
+  button.addEventListener("click", function () {
+    var list = document.getElementById(button.dataset.list);
+    var start = parseInt(button.dataset.start, 10);
+    button.disabled = true;
+    fetch(button.dataset.url + "?start=" + start)
+      .then(function (rsp) {
+        if (!rsp.ok) {
+          throw new Error(rsp.statusText);
+        }
+        return rsp.text();
+      })
+      .then(function (html) {
+        list.insertAdjacentHTML("beforeend", html);
+        start += parseInt(button.dataset.pageSize, 10);
+        button.dataset.start = start;
+        if (start >= parseInt(button.dataset.total, 10)) {
+          button.remove();
+        } else {
+          button.disabled = false;
+        }
+      })
+      .catch(function () {
+        button.disabled = false;
+      });
+  });
+});
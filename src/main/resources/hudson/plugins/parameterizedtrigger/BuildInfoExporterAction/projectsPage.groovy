@@ -0,0 +1,16 @@
+package hudson.plugins.parameterizedtrigger.BuildInfoExporterAction
+
+// list items for one page of projects triggered without blocking, starting at the "start" query parameter
+
+def param = request2.getParameter("start")
+def start = param?.isInteger() ? param as int : 0
+
+for (item in my.getTriggeredProjects(start, my.pageSize)) {
+	li {
+		if (item != null) {
+			a(href:"${rootURL}/${item.url}", class:"model-link") {
+				text(item.displayName)
+			}
+		}
+	}
+}
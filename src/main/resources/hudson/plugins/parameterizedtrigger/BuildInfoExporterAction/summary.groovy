@@ -6,43 +6,43 @@ if (System.getProperty(DISABLE_ACTION_VIEWS_KEY) != null) {
 	return
 }
 
-def l = namespace(lib.LayoutTagLib)
+def st = namespace("jelly:stapler")
 
-def builds = my.triggeredBuilds
-if(builds.size() > 0) {
+// further pages are fetched from the action, see paging.js
+def run = request2.findAncestorObject(hudson.model.Run)
+def actionUrl = "${rootURL}/${run.url}${my.urlName}"
+def pageSize = my.pageSize
+
+def buildCount = my.triggeredBuildCount
+if (buildCount > 0) {
 	h2("Subproject Builds")
 
-	ul(style:"list-style-type: none;") {
-		for (item in builds) {
-			li {
-				if (item != null) {
-					a(href:"${rootURL}/${item.project.url}", class:"model-link") {
-						text(item.project.displayName)
-					}
-					a(href:"${rootURL}/${item.url}", class:"model-link") {
-						l.icon(class: "${item.iconColor.iconClassName} icon-sm", alt:"${item.iconColor.description}")
-						text(item.displayName)
-					}
-				}
-			}
+	ul(id:"parameterized-trigger-builds", style:"list-style-type: none;") {
+		include(my, "buildsPage")
+	}
+	if (buildCount > pageSize) {
+		st.adjunct(includes: "hudson.plugins.parameterizedtrigger.BuildInfoExporterAction.paging")
+		button(type:"button", class:"jenkins-button parameterized-trigger-more",
+				"data-list":"parameterized-trigger-builds", "data-url":"${actionUrl}/buildsPage",
+				"data-start":pageSize, "data-page-size":pageSize, "data-total":buildCount) {
+			text(_("Show more"))
 		}
-	} 
+	}
 }
 
-def projects = my.triggeredProjects
-if (projects.size() > 0) {
+def projectCount = my.triggeredProjectCount
+if (projectCount > 0) {
 	h2("Subprojects triggered but not blocked for")
 
-	ul(style:"list-style-type: none;") {
-		for (item in projects) {
-			li {
-				if (item != null) {
-					a(href:"${rootURL}/${item.url}", class:"model-link") {
-						text(item.displayName)
-					}
-				}
-			}
+	ul(id:"parameterized-trigger-projects", style:"list-style-type: none;") {
+		include(my, "projectsPage")
+	}
+	if (projectCount > pageSize) {
+		st.adjunct(includes: "hudson.plugins.parameterizedtrigger.BuildInfoExporterAction.paging")
+		button(type:"button", class:"jenkins-button parameterized-trigger-more",
+				"data-list":"parameterized-trigger-projects", "data-url":"${actionUrl}/projectsPage",
+				"data-start":pageSize, "data-page-size":pageSize, "data-total":projectCount) {
+			text(_("Show more"))
 		}
 	}
 }
-
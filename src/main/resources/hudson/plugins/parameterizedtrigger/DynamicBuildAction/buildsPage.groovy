@@ -0,0 +1,31 @@
+package hudson.plugins.parameterizedtrigger.DynamicBuildAction
+
+// one page of dynamic downstream builds, starting at the "start" query parameter
+
+def param = request2.getParameter("start")
+def start = param?.isInteger() ? param as int : 0
+
+my.getBuilds(start, my.pageSize).each { build ->
+    ul(style: "list-style-type: none;") {
+        li {
+            if (null == build) {
+                text("Build is null")
+            } else {
+                def prj = build.getProject()
+                if (null == prj) {
+                    text("Project is null")
+                } else {
+                    a(href: "${rootURL}/${build.getProject().getUrl()}", class: "model-link") {
+                        img(src: "${imagesURL}/16x16/${build.getResult().color.getImage()}",
+                                alt: "${build.getResult().toString()}", height: "16", width: "16")
+                        text(build.getProject().getFullDisplayName())
+                    }
+                    text("   ")
+                    a(href: "${rootURL}/${build.url}", class: "model-link") {
+                        text("build " + build.getDisplayName())
+                    }
+                }
+            }
+        }
+    }
+}
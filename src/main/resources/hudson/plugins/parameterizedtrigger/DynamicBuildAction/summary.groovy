@@ -6,31 +6,23 @@ if (System.getProperty(DISABLE_ACTION_VIEWS_KEY) != null) {
     return
 }
 
-def acts = my.builds
-if (!acts.empty) {
+def st = namespace("jelly:stapler")
+
+def count = my.buildCount
+if (count > 0) {
     h2(_("Dynamic downstream projects"))
-    my.builds.each { build ->
-        ul(style: "list-style-type: none;") {
-            li {
-                if (null == build) {
-                    text("Build is null")
-                } else {
-                    def prj = build.getProject()
-                    if (null == prj) {
-                        text("Project is null")
-                    } else {
-                        a(href: "${rootURL}/${build.getProject().getUrl()}", class: "model-link") {
-                            img(src: "${imagesURL}/16x16/${build.getResult().color.getImage()}",
-                                    alt: "${build.getResult().toString()}", height: "16", width: "16")
-                            text(build.getProject().getFullDisplayName())
-                        }
-                        text("   ")
-                        a(href: "${rootURL}/${build.url}", class: "model-link") {
-                            text("build " + build.getDisplayName())
-                        }
-                    }
-                }
-            }
+    div(id: "parameterized-trigger-dynamic-builds") {
+        include(my, "buildsPage")
+    }
+    if (count > my.pageSize) {
+        // further pages are fetched from the action, see BuildInfoExporterAction/paging.js
+        def run = request2.findAncestorObject(hudson.model.Run)
+        st.adjunct(includes: "hudson.plugins.parameterizedtrigger.BuildInfoExporterAction.paging")
+        button(type: "button", class: "jenkins-button parameterized-trigger-more",
+                "data-list": "parameterized-trigger-dynamic-builds",
+                "data-url": "${rootURL}/${run.url}${my.urlName}/buildsPage",
+                "data-start": my.pageSize, "data-page-size": my.pageSize, "data-total": count) {
+            text(_("Show more"))
         }
     }
 }
@@ -0,0 +1,15 @@
+Behaviour.specify("DIV.parameterized-trigger-subprojects", "parameterized-trigger-subprojects", 0, function (div) {
+  fetch(div.dataset.url)
+    .then(function (rsp) {
+      if (!rsp.ok) {
+        throw new Error(rsp.statusText);
+      }
+      return rsp.text();
+    })
+    .then(function (html) {
+      div.innerHTML = html;
+    })
+    .catch(function () {
+      div.remove();
+    });
+});
@@ -0,0 +1,108 @@
+package hudson.plugins.parameterizedtrigger.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import hudson.EnvVars;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Result;
+import hudson.model.StringParameterDefinition;
+import hudson.plugins.parameterizedtrigger.ArtifactReferenceBuildParameters;
+import hudson.plugins.parameterizedtrigger.ArtifactReferenceParameterValue;
+import hudson.plugins.parameterizedtrigger.BlockableBuildTriggerConfig;
+import hudson.plugins.parameterizedtrigger.BlockingBehaviour;
+import hudson.plugins.parameterizedtrigger.BuildTrigger;
+import hudson.plugins.parameterizedtrigger.BuildTriggerConfig;
+import hudson.plugins.parameterizedtrigger.ResultCondition;
+import hudson.plugins.parameterizedtrigger.TriggerBuilder;
+import hudson.tasks.ArtifactArchiver;
+import hudson.util.FormValidation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class ArtifactReferenceBuildParametersTest {
+
+    @Test
+    void testDownstreamResolvesArtifacts(JenkinsRule r) throws Exception {
+        FreeStyleProject upstream = r.createFreeStyleProject("upstream");
+        upstream.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                    throws IOException, InterruptedException {
+                build.getWorkspace().child("a.txt").write("a", "UTF-8");
+                build.getWorkspace().child("dir/b.txt").write("b", "UTF-8");
+                build.getWorkspace().child("c.log").write("c", "UTF-8");
+                return true;
+            }
+        });
+        upstream.getPublishersList().add(new ArtifactArchiver("**/*"));
+        upstream.getPublishersList()
+                .add(new BuildTrigger(new BuildTriggerConfig(
+                        "downstream",
+                        ResultCondition.SUCCESS,
+                        new ArtifactReferenceBuildParameters("ARTIFACTS", "**/*.txt"))));
+
+        FreeStyleProject downstream = r.createFreeStyleProject("downstream");
+        // SECURITY-170: must define parameters in subjobs
+        downstream.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("ARTIFACTS", "")));
+        CaptureAllEnvironmentBuilder builder = new CaptureAllEnvironmentBuilder();
+        downstream.getBuildersList().add(builder);
+        r.jenkins.rebuildDependencyGraph();
+
+        FreeStyleBuild upstreamBuild = r.buildAndAssertSuccess(upstream);
+        r.waitUntilNoActivity();
+
+        FreeStyleBuild build = downstream.getLastBuild();
+        r.assertBuildStatusSuccess(build);
+        EnvVars env = builder.getEnvVars().get(build.getId());
+        assertEquals("**/*.txt", env.get("ARTIFACTS"));
+        assertEquals(upstreamBuild.getExternalizableId(), env.get("ARTIFACTS_RUN"));
+
+        ArtifactReferenceParameterValue value = assertInstanceOf(
+                ArtifactReferenceParameterValue.class,
+                build.getAction(ParametersAction.class).getParameter("ARTIFACTS"));
+        assertEquals(upstreamBuild, value.getRun());
+        List<String> paths = value.getArtifactPaths();
+        Collections.sort(paths);
+        assertEquals(List.of("a.txt", "dir/b.txt"), paths);
+        try (InputStream in = value.open("dir/b.txt")) {
+            assertEquals("b", IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testBlankParameterName(JenkinsRule r) throws Exception {
+        ArtifactReferenceBuildParameters.DescriptorImpl descriptor =
+                r.jenkins.getDescriptorByType(ArtifactReferenceBuildParameters.DescriptorImpl.class);
+        assertEquals(FormValidation.Kind.ERROR, descriptor.doCheckParameterName("  ").kind);
+        assertEquals(FormValidation.Kind.WARNING, descriptor.doCheckParameterName("MY-FILES").kind);
+        assertEquals(FormValidation.Kind.OK, descriptor.doCheckParameterName("MY_FILES").kind);
+
+        FreeStyleProject downstream = r.createFreeStyleProject("downstream");
+        FreeStyleProject upstream = r.createFreeStyleProject("upstream");
+        upstream.getBuildersList()
+                .add(new TriggerBuilder(new BlockableBuildTriggerConfig(
+                        "downstream",
+                        new BlockingBehaviour(Result.FAILURE, Result.UNSTABLE, Result.FAILURE),
+                        List.of(new ArtifactReferenceBuildParameters(" ", "**/*.txt")))));
+
+        FreeStyleBuild build = r.buildAndAssertStatus(Result.FAILURE, upstream);
+        r.assertLogContains("No parameter name specified", build);
+        assertEquals(0, downstream.getBuilds().size());
+    }
+}
@@ -0,0 +1,324 @@
+package hudson.plugins.parameterizedtrigger.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.Util;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.FileParameterDefinition;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Result;
+import hudson.plugins.parameterizedtrigger.BinaryFileParameterFactory;
+import hudson.plugins.parameterizedtrigger.BlockableBuildTriggerConfig;
+import hudson.plugins.parameterizedtrigger.BlockingBehaviour;
+import hudson.plugins.parameterizedtrigger.StoredFileParameterValue;
+import hudson.plugins.parameterizedtrigger.TriggerBuilder;
+import hudson.slaves.DumbSlave;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class BinaryFileParameterFactoryTest {
+
+    @Test
+    void testCopyFromAgent(JenkinsRule r) throws Exception {
+        DumbSlave agent = r.createOnlineSlave();
+        Map<String, Integer> files = new LinkedHashMap<>();
+        files.put("a.bin", 100_000);
+        files.put("sub/b.bin", 3);
+        FreeStyleProject downstream = createDownstream(r);
+        FreeStyleProject upstream = createUpstream(r, files, "**/*.bin");
+        upstream.setAssignedNode(agent);
+
+        FreeStyleBuild build = r.buildAndAssertSuccess(upstream);
+        r.waitUntilNoActivity();
+
+        assertFilesPassed(build, downstream, files);
+    }
+
+    @Test
+    void testCopyLocal(JenkinsRule r) throws Exception {
+        Map<String, Integer> files = Collections.singletonMap("a.bin", 1000);
+        FreeStyleProject downstream = createDownstream(r);
+        FreeStyleProject upstream = createUpstream(r, files, "*.bin");
+
+        FreeStyleBuild build = r.buildAndAssertSuccess(upstream);
+        r.waitUntilNoActivity();
+
+        assertFilesPassed(build, downstream, files);
+        assertEquals(1, getLinkCount(build.getWorkspace().child("a.bin")));
+    }
+
+    @Test
+    void testLinkLocal(JenkinsRule r) throws Exception {
+        Map<String, Integer> files = Collections.singletonMap("a.bin", 1000);
+        FreeStyleProject downstream = createDownstream(r);
+        FreeStyleProject upstream = createUpstream(r, files, "*.bin");
+
+        BinaryFileParameterFactory.LINK_LOCAL_FILES = true;
+        FreeStyleBuild build;
+        try {
+            build = r.buildAndAssertSuccess(upstream);
+            r.waitUntilNoActivity();
+        } finally {
+            BinaryFileParameterFactory.LINK_LOCAL_FILES = false;
+        }
+
+        assertFilesPassed(build, downstream, files);
+        // the workspace file is also the copy in the upstream build
+        assertTrue(getLinkCount(build.getWorkspace().child("a.bin")) > 1);
+    }
+
+    @Test
+    void testControllerFailureStopsAgent(JenkinsRule r) throws Exception {
+        DumbSlave agent = r.createOnlineSlave();
+        createDownstream(r);
+        // more than the pipe window, so the agent would block if nothing reads anymore
+        FreeStyleProject upstream = createUpstream(r, Collections.singletonMap("big.bin", 8_000_000), "*.bin");
+        upstream.setAssignedNode(agent);
+        upstream.getBuildersList().add(0, new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                    throws IOException {
+                // the controller cannot extract the file over a directory
+                Files.createDirectories(new File(build.getRootDir(), "parameter-files/big.bin/x").toPath());
+                return true;
+            }
+        });
+
+        FreeStyleBuild build = upstream.scheduleBuild2(0).get(100, TimeUnit.SECONDS);
+
+        r.assertBuildStatus(Result.FAILURE, build);
+        r.assertLogContains("Failed to compute binary file parameters", build);
+    }
+
+    @Test
+    void testAgentFailureStopsController(JenkinsRule r) throws Exception {
+        DumbSlave agent = r.createOnlineSlave();
+        createDownstream(r);
+        FreeStyleProject upstream = createUpstream(r, Collections.emptyMap(), "*.bin");
+        upstream.setAssignedNode(agent);
+        FilePath workspace = agent.getWorkspaceFor(upstream);
+        workspace.child("a.bin").write("readable", "UTF-8");
+        FilePath unreadable = workspace.child("b.bin");
+        unreadable.write("unreadable", "UTF-8");
+        unreadable.chmod(0);
+        assumeFalse(Files.isReadable(new File(unreadable.getRemote()).toPath()), "cannot make a file unreadable");
+
+        FreeStyleBuild build = upstream.scheduleBuild2(0).get(100, TimeUnit.SECONDS);
+
+        r.assertBuildStatus(Result.FAILURE, build);
+        r.assertLogContains("Failed to compute binary file parameters", build);
+    }
+
+    @Test
+    void testStoredFileReferences(JenkinsRule r) throws Exception {
+        FreeStyleProject downstream = createDownstream(r);
+        FreeStyleProject upstream = createUpstream(r, Collections.singletonMap("a.bin", 1000), "*.bin");
+
+        FreeStyleBuild upstreamBuild = r.buildAndAssertSuccess(upstream);
+        r.waitUntilNoActivity();
+
+        // one for the upstream build, one for the downstream build
+        File entry = getStoreEntry(r, sha256(randomBytes(1000)));
+        assertEquals(2, new File(entry, "refs").list().length);
+
+        downstream.getLastBuild().delete();
+        assertEquals(1, new File(entry, "refs").list().length);
+        assertTrue(new File(entry, "blob").isFile());
+
+        upstreamBuild.delete();
+        assertFalse(entry.exists());
+    }
+
+    @Test
+    void testUpstreamDeletedBeforeDownstreamStarts(JenkinsRule r) throws Exception {
+        FreeStyleProject downstream = createDownstream(r);
+        downstream.setAssignedLabel(r.jenkins.getLabel("later"));
+        FreeStyleProject upstream =
+                createUpstream(r, Collections.singletonMap("a.bin", 1000), "*.bin", "FILE", null);
+
+        r.buildAndAssertSuccess(upstream).delete();
+
+        File entry = getStoreEntry(r, sha256(randomBytes(1000)));
+        assertTrue(new File(entry, "blob").isFile(), "held by the queued downstream build");
+
+        downstream.setAssignedLabel(null);
+        r.jenkins.getQueue().scheduleMaintenance();
+        r.waitUntilNoActivity();
+        FreeStyleBuild build = downstream.getLastBuild();
+        r.assertBuildStatusSuccess(build);
+        assertArrayEquals(
+                randomBytes(1000), Files.readAllBytes(new File(build.getRootDir(), "fileParameters/FILE").toPath()));
+
+        build.delete();
+        assertFalse(entry.exists());
+    }
+
+    @Test
+    void testCancelledDownstreamReleases(JenkinsRule r) throws Exception {
+        FreeStyleProject downstream = createDownstream(r);
+        downstream.setAssignedLabel(r.jenkins.getLabel("later"));
+        FreeStyleProject upstream =
+                createUpstream(r, Collections.singletonMap("a.bin", 1000), "*.bin", "FILE", null);
+
+        FreeStyleBuild upstreamBuild = r.buildAndAssertSuccess(upstream);
+        File entry = getStoreEntry(r, sha256(randomBytes(1000)));
+        assertEquals(2, new File(entry, "refs").list().length);
+
+        assertTrue(r.jenkins.getQueue().cancel(downstream));
+        assertEquals(1, new File(entry, "refs").list().length);
+
+        upstreamBuild.delete();
+        assertFalse(entry.exists());
+    }
+
+    @Test
+    void testFallbackWhenNotStored(JenkinsRule r) throws Exception {
+        FreeStyleProject downstream = createDownstream(r);
+        downstream.setAssignedLabel(r.jenkins.getLabel("later"));
+        FreeStyleProject upstream =
+                createUpstream(r, Collections.singletonMap("a.bin", 1000), "*.bin", "FILE", null);
+
+        r.buildAndAssertSuccess(upstream);
+        // lost from the store, the downstream build copies the file of the upstream build
+        Util.deleteRecursive(getStoreEntry(r, sha256(randomBytes(1000))));
+
+        downstream.setAssignedLabel(null);
+        r.jenkins.getQueue().scheduleMaintenance();
+        r.waitUntilNoActivity();
+        FreeStyleBuild build = downstream.getLastBuild();
+        r.assertBuildStatusSuccess(build);
+        assertArrayEquals(
+                randomBytes(1000), Files.readAllBytes(new File(build.getRootDir(), "fileParameters/FILE").toPath()));
+    }
+
+    @Test
+    void testLocationEscapingWorkspace(JenkinsRule r) throws Exception {
+        FreeStyleProject downstream = createDownstream(r, "../escape");
+        FreeStyleProject upstream =
+                createUpstream(r, Collections.singletonMap("a.bin", 1000), "*.bin", "../escape", null);
+
+        r.buildAndAssertSuccess(upstream);
+        r.waitUntilNoActivity();
+
+        FreeStyleBuild build = downstream.getLastBuild();
+        r.assertBuildStatus(Result.FAILURE, build);
+        r.assertLogContains("Rejecting file path escaping base directory", build);
+        assertFalse(build.getWorkspace().getParent().child("escape").exists());
+        assertFalse(new File(build.getRootDir(), "escape").exists());
+    }
+
+    private static FreeStyleProject createDownstream(JenkinsRule r) throws IOException {
+        return createDownstream(r, "FILE");
+    }
+
+    private static FreeStyleProject createDownstream(JenkinsRule r, String parameterName) throws IOException {
+        FreeStyleProject downstream = r.createFreeStyleProject("downstream");
+        // SECURITY-170: must define parameters in subjobs
+        downstream.addProperty(new ParametersDefinitionProperty(new FileParameterDefinition(parameterName, null)));
+        return downstream;
+    }
+
+    private static FreeStyleProject createUpstream(JenkinsRule r, Map<String, Integer> files, String pattern)
+            throws IOException {
+        return createUpstream(
+                r, files, pattern, "FILE", new BlockingBehaviour(Result.FAILURE, Result.UNSTABLE, Result.FAILURE));
+    }
+
+    /**
+     * @param files the sizes of the files to write into the workspace, by name
+     * @param block null to not wait for the downstream builds
+     */
+    private static FreeStyleProject createUpstream(
+            JenkinsRule r, Map<String, Integer> files, String pattern, String parameterName, BlockingBehaviour block)
+            throws IOException {
+        FreeStyleProject upstream = r.createFreeStyleProject("upstream");
+        upstream.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                    throws IOException, InterruptedException {
+                for (Map.Entry<String, Integer> file : files.entrySet()) {
+                    build.getWorkspace()
+                            .child(file.getKey())
+                            .copyFrom(new ByteArrayInputStream(randomBytes(file.getValue())));
+                }
+                return true;
+            }
+        });
+        upstream.getBuildersList()
+                .add(new TriggerBuilder(new BlockableBuildTriggerConfig(
+                        "downstream",
+                        block,
+                        Collections.singletonList(new BinaryFileParameterFactory(parameterName, pattern)),
+                        Collections.emptyList())));
+        return upstream;
+    }
+
+    private static void assertFilesPassed(
+            FreeStyleBuild upstream, FreeStyleProject downstream, Map<String, Integer> files) throws Exception {
+        Map<String, byte[]> byDigest = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> file : files.entrySet()) {
+            byte[] content = randomBytes(file.getValue());
+            File copy = new File(upstream.getRootDir(), "parameter-files/" + file.getKey());
+            assertArrayEquals(content, Files.readAllBytes(copy.toPath()), file.getKey());
+            byDigest.put(sha256(content), content);
+        }
+        assertEquals(files.size(), downstream.getBuilds().size());
+        for (FreeStyleBuild build : downstream.getBuilds()) {
+            assertEquals(Result.SUCCESS, build.getResult(), build.getFullDisplayName());
+            StoredFileParameterValue value = assertInstanceOf(
+                    StoredFileParameterValue.class,
+                    build.getAction(ParametersAction.class).getParameter("FILE"));
+            byte[] expected = byDigest.remove(value.getDigest());
+            assertNotNull(expected, "unexpected digest " + value.getDigest());
+            File passed = new File(build.getRootDir(), "fileParameters/FILE");
+            assertArrayEquals(expected, Files.readAllBytes(passed.toPath()));
+            assertEquals(value.getDigest(), sha256(Files.readAllBytes(passed.toPath())));
+        }
+    }
+
+    private static File getStoreEntry(JenkinsRule r, String digest) {
+        return new File(r.jenkins.getRootDir(), "parameterized-trigger-files/" + digest);
+    }
+
+    private static int getLinkCount(FilePath file) throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("unix"), "no link count");
+        return (Integer) Files.getAttribute(new File(file.getRemote()).toPath(), "unix:nlink");
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return Util.toHexString(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -29,7 +29,10 @@ import static org.hamcrest.collection.IsMapContaining.hasEntry;
 import static org.junit.jupiter.api.Assertions.*;
 
 import hudson.EnvVars;
+import hudson.FilePath;
+import hudson.Launcher;
 import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
 import hudson.model.Cause.UserIdCause;
 import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
@@ -44,15 +47,25 @@ import hudson.plugins.parameterizedtrigger.CounterBuildParameterFactory;
 import hudson.plugins.parameterizedtrigger.CurrentBuildParameters;
 import hudson.plugins.parameterizedtrigger.PredefinedBuildParameters;
 import hudson.plugins.parameterizedtrigger.TriggerBuilder;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.CaptureEnvironmentBuilder;
 import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 import org.jvnet.hudson.test.recipes.LocalData;
 
@@ -467,4 +480,258 @@ class BuildInfoExporterTest {
             assertEquals(lastReferenceValue, env.get(BuildInfoExporterAction.JOB_NAME_VARIABLE));
         }
     }
+
+    @Test
+    void testCompactForm(JenkinsRule r) throws Exception {
+        BuildInfoExporterAction action = new BuildInfoExporterAction(
+                new BuildInfoExporterAction.BuildReference("folder/downstream", 1, Result.SUCCESS));
+        for (int i = 2; i <= 50; i++) {
+            action.addBuildReference("folder/downstream", i, i % 2 == 0 ? Result.SUCCESS : Result.FAILURE);
+        }
+        action.addBuildReference(new BuildInfoExporterAction.BuildReference("other"));
+
+        String xml = Run.XSTREAM2.toXML(action);
+        // once in the project names, once in the last reference
+        assertEquals(2, xml.split("folder/downstream", -1).length - 1, xml);
+        assertThat(xml, not(containsString("<builds>")));
+
+        BuildInfoExporterAction loaded = (BuildInfoExporterAction) Run.XSTREAM2.fromXML(xml);
+        EnvVars expected = new EnvVars();
+        action.buildEnvVars(null, expected);
+        EnvVars actual = new EnvVars();
+        loaded.buildEnvVars(null, actual);
+        assertEquals(expected, actual);
+        assertEquals("FAILURE", actual.get("TRIGGERED_BUILD_RESULT_folder_downstream_RUN_49"));
+        assertEquals("50", actual.get("TRIGGERED_BUILD_RUN_COUNT_folder_downstream"));
+    }
+
+    @Test
+    void testMigrateFromList(JenkinsRule r) throws Exception {
+        // as saved before the compact form, the last reference pointing into the list
+        String xml = "<hudson.plugins.parameterizedtrigger.BuildInfoExporterAction>"
+                + "<builds>"
+                + "<hudson.plugins.parameterizedtrigger.BuildInfoExporterAction_-BuildReference>"
+                + "<projectName>downstream</projectName><buildNumber>1</buildNumber><buildResult>SUCCESS</buildResult>"
+                + "</hudson.plugins.parameterizedtrigger.BuildInfoExporterAction_-BuildReference>"
+                + "<hudson.plugins.parameterizedtrigger.BuildInfoExporterAction_-BuildReference>"
+                + "<projectName>downstream</projectName><buildNumber>2</buildNumber><buildResult>FAILURE</buildResult>"
+                + "</hudson.plugins.parameterizedtrigger.BuildInfoExporterAction_-BuildReference>"
+                + "</builds>"
+                + "<lastReference reference=\"../builds/"
+                + "hudson.plugins.parameterizedtrigger.BuildInfoExporterAction_-BuildReference[2]\"/>"
+                + "</hudson.plugins.parameterizedtrigger.BuildInfoExporterAction>";
+
+        BuildInfoExporterAction action = (BuildInfoExporterAction) Run.XSTREAM2.fromXML(xml);
+        EnvVars env = new EnvVars();
+        action.buildEnvVars(null, env);
+        assertEquals("downstream", env.get(BuildInfoExporterAction.JOB_NAME_VARIABLE));
+        assertEquals("1,2", env.get(BuildInfoExporterAction.ALL_BUILD_NUMBER_VARIABLE_PREFIX + "downstream"));
+        assertEquals("FAILURE", env.get(BuildInfoExporterAction.BUILD_RESULT_VARIABLE_PREFIX + "downstream"));
+
+        String saved = Run.XSTREAM2.toXML(action);
+        assertThat(saved, not(containsString("<builds>")));
+        assertThat(saved, containsString("<projectNames>"));
+    }
+
+    @Test
+    void testPaging(JenkinsRule r) throws Exception {
+        FreeStyleProject downstream = r.createFreeStyleProject("downstream");
+        BuildInfoExporterAction action =
+                new BuildInfoExporterAction(new BuildInfoExporterAction.BuildReference("downstream"));
+        for (int i = 0; i < 5; i++) {
+            FreeStyleBuild b = r.buildAndAssertSuccess(downstream);
+            action.addBuildReference("downstream", b.getNumber(), b.getResult());
+        }
+
+        assertEquals(5, action.getTriggeredBuildCount());
+        assertEquals(1, action.getTriggeredProjectCount());
+        assertEquals(6, action.getBuildReferences().size());
+
+        List<AbstractBuild<?, ?>> page = action.getTriggeredBuilds(3, 10);
+        assertEquals(Arrays.asList(downstream.getBuildByNumber(4), downstream.getBuildByNumber(5)), page);
+        assertEquals(
+                Collections.singletonList(downstream.getBuildByNumber(2)), action.getTriggeredBuilds(1, 1));
+        assertEquals(Collections.singletonList(downstream), action.getTriggeredProjects(0, 10));
+        assertTrue(action.getTriggeredProjects(1, 10).isEmpty());
+    }
+
+    @Test
+    void testConcurrentReferences(JenkinsRule r) throws Exception {
+        BuildInfoExporterAction action = new BuildInfoExporterAction(
+                new BuildInfoExporterAction.BuildReference("downstream", 1, Result.SUCCESS));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        action.addBuildReference("downstream" + thread, i + 1, Result.SUCCESS);
+                        action.buildEnvVars(null, new EnvVars());
+                        action.getTriggeredBuildCount();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(801, action.getBuildReferences().size());
+        EnvVars env = new EnvVars();
+        action.buildEnvVars(null, env);
+        for (int t = 0; t < 8; t++) {
+            assertEquals("100", env.get(BuildInfoExporterAction.BUILD_RUN_COUNT_PREFIX + "downstream" + t));
+        }
+
+        BuildInfoExporterAction loaded = (BuildInfoExporterAction) Run.XSTREAM2.fromXML(Run.XSTREAM2.toXML(action));
+        assertEquals(801, loaded.getBuildReferences().size());
+    }
+
+    @Test
+    void testSaveWhileAdding(JenkinsRule r) throws Exception {
+        BuildInfoExporterAction action = new BuildInfoExporterAction(
+                new BuildInfoExporterAction.BuildReference("downstream0", 1, Result.SUCCESS));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> adding = executor.submit(() -> {
+                for (int i = 1; i < 5000; i++) {
+                    action.addBuildReference("downstream" + i, i + 1, Result.SUCCESS);
+                }
+            });
+            int previous = 0;
+            while (!adding.isDone() || previous < 5000) {
+                String xml = Run.XSTREAM2.toXML(action);
+                assertThat(xml, not(containsString("<null/>")));
+                BuildInfoExporterAction loaded = (BuildInfoExporterAction) Run.XSTREAM2.fromXML(xml);
+                List<BuildInfoExporterAction.BuildReference> refs = loaded.getBuildReferences();
+                assertThat(refs.size(), greaterThanOrEqualTo(previous));
+                for (int i = 0; i < refs.size(); i++) {
+                    assertEquals("downstream" + i, refs.get(i).projectName);
+                    assertEquals(i + 1, refs.get(i).buildNumber);
+                }
+                previous = refs.size();
+            }
+            adding.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExportFile(JenkinsRule r) throws Exception {
+        boolean exportFile = BuildInfoExporterAction.EXPORT_FILE;
+        BuildInfoExporterAction.EXPORT_FILE = true;
+        try {
+            FreeStyleProject upstream = createUpstreamTriggeringTwice(r);
+            CaptureEnvironmentBuilder builder = new CaptureEnvironmentBuilder();
+            upstream.getBuildersList().add(builder);
+            List<String> exported = new ArrayList<>();
+            upstream.getBuildersList().add(new TestBuilder() {
+                @Override
+                public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                        throws IOException, InterruptedException {
+                    String path = build.getEnvironment(listener).get(BuildInfoExporterAction.FILE_VARIABLE);
+                    exported.add(new FilePath(launcher.getChannel(), path).readToString());
+                    return true;
+                }
+            });
+
+            FreeStyleBuild build = r.buildAndAssertSuccess(upstream);
+            String expected = "{\"project\":\"downstream\",\"number\":1,\"result\":\"SUCCESS\"}\n"
+                    + "{\"project\":\"downstream\",\"number\":2,\"result\":\"SUCCESS\"}\n";
+            assertEquals(Collections.singletonList(expected), exported);
+            File file = new File(build.getRootDir(), BuildInfoExporterAction.FILE_NAME);
+            assertEquals(expected, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+
+            EnvVars envVars = builder.getEnvVars();
+            assertThat(envVars, hasKey(BuildInfoExporterAction.FILE_VARIABLE));
+            assertThat(envVars, hasEntry("TRIGGERED_BUILD_COUNT", "2"));
+            assertThat(envVars, hasEntry("TRIGGERED_BUILD_COUNT_SUCCESS", "2"));
+            assertThat(envVars, hasEntry("TRIGGERED_BUILD_COUNT_FAILURE", "0"));
+            assertThat(envVars, hasEntry("TRIGGERED_BUILD_RUN_COUNT_downstream", "2"));
+            assertThat(envVars, hasEntry("TRIGGERED_BUILD_NUMBER_downstream", "2"));
+            assertThat(envVars, not(hasKey("TRIGGERED_BUILD_NUMBERS_downstream")));
+            assertThat(envVars, not(hasKey("TRIGGERED_BUILD_RESULT_downstream_RUN_1")));
+
+            // the workspace may belong to another build by now
+            EnvVars after = new EnvVars();
+            build.getAction(BuildInfoExporterAction.class).buildEnvVars(build, after);
+            assertThat(after, not(hasKey(BuildInfoExporterAction.FILE_VARIABLE)));
+        } finally {
+            BuildInfoExporterAction.EXPORT_FILE = exportFile;
+        }
+    }
+
+    @Test
+    void testNoExportFile(JenkinsRule r) throws Exception {
+        boolean exportFile = BuildInfoExporterAction.EXPORT_FILE;
+        BuildInfoExporterAction.EXPORT_FILE = false;
+        try {
+            FreeStyleProject upstream = createUpstreamTriggeringTwice(r);
+            CaptureEnvironmentBuilder builder = new CaptureEnvironmentBuilder();
+            upstream.getBuildersList().add(builder);
+
+            FreeStyleBuild build = r.buildAndAssertSuccess(upstream);
+            assertFalse(new File(build.getRootDir(), BuildInfoExporterAction.FILE_NAME).exists());
+
+            EnvVars envVars = builder.getEnvVars();
+            assertThat(envVars, not(hasKey(BuildInfoExporterAction.FILE_VARIABLE)));
+            assertThat(envVars, not(hasKey("TRIGGERED_BUILD_COUNT")));
+            assertThat(envVars, hasEntry("TRIGGERED_BUILD_NUMBERS_downstream", "1,2"));
+            assertThat(envVars, hasEntry("TRIGGERED_BUILD_RESULT_downstream_RUN_1", "SUCCESS"));
+            assertThat(envVars, hasEntry("TRIGGERED_BUILD_RESULT_downstream_RUN_2", "SUCCESS"));
+            assertThat(envVars, hasEntry("TRIGGERED_BUILD_RUN_COUNT_downstream", "2"));
+
+            // the variables computed above are not reused once the flag changes
+            BuildInfoExporterAction action = build.getAction(BuildInfoExporterAction.class);
+            BuildInfoExporterAction.EXPORT_FILE = true;
+            EnvVars exporting = new EnvVars();
+            action.buildEnvVars(build, exporting);
+            assertThat(exporting, hasEntry("TRIGGERED_BUILD_COUNT", "2"));
+            assertThat(exporting, not(hasKey("TRIGGERED_BUILD_NUMBERS_downstream")));
+
+            BuildInfoExporterAction.EXPORT_FILE = false;
+            EnvVars listing = new EnvVars();
+            action.buildEnvVars(build, listing);
+            assertThat(listing, not(hasKey("TRIGGERED_BUILD_COUNT")));
+            assertThat(listing, hasEntry("TRIGGERED_BUILD_NUMBERS_downstream", "1,2"));
+        } finally {
+            BuildInfoExporterAction.EXPORT_FILE = exportFile;
+        }
+    }
+
+    @Test
+    void testExportedVisibility(JenkinsRule r) throws Exception {
+        FreeStyleProject upstream = createUpstreamTriggeringTwice(r);
+        FreeStyleBuild build = r.buildAndAssertSuccess(upstream);
+        r.waitUntilNoActivity();
+
+        // the action is nested in the build, so only its visibility 2 properties show at depth 0
+        JSONArray actions = r.getJSON(build.getUrl() + "api/json?depth=0").getJSONObject().getJSONArray("actions");
+        JSONObject exported = null;
+        for (Object o : actions) {
+            JSONObject action = (JSONObject) o;
+            if (BuildInfoExporterAction.class.getName().equals(action.optString("_class"))) {
+                exported = action;
+            }
+        }
+        assertNotNull(exported);
+        assertEquals(2, exported.getJSONArray("buildReferences").size());
+        assertFalse(exported.has("triggeredBuilds"));
+        assertFalse(exported.has("triggeredProjects"));
+    }
+
+    private static FreeStyleProject createUpstreamTriggeringTwice(JenkinsRule r) throws Exception {
+        r.createFreeStyleProject("downstream");
+        FreeStyleProject upstream = r.createFreeStyleProject("upstream");
+        BlockingBehaviour neverFail = new BlockingBehaviour("never", "never", "never");
+        upstream.getBuildersList()
+                .add(new TriggerBuilder(
+                        new BlockableBuildTriggerConfig("downstream", neverFail, new ArrayList<>()),
+                        new BlockableBuildTriggerConfig("downstream", neverFail, new ArrayList<>())));
+        return upstream;
+    }
 }
@@ -67,6 +67,7 @@ import org.jvnet.hudson.test.CaptureEnvironmentBuilder;
 import org.jvnet.hudson.test.Issue;
 import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.MockAuthorizationStrategy;
+import org.jvnet.hudson.test.MockFolder;
 import org.jvnet.hudson.test.MockQueueItemAuthenticator;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 
@@ -133,6 +134,25 @@ class BuildTriggerConfigTest {
         validateOutcome(masterProject, masterConfig, 0, 1, 0, 1);
     }
 
+    /**
+     * Dynamic projects are remembered when they are triggered, without going through the builds that triggered them.
+     */
+    @Test
+    void testGetProjectListDynamicRecorded(JenkinsRule r) throws Exception {
+        Project<?, ?> masterProject = r.createFreeStyleProject("project");
+        BlockableBuildTriggerConfig masterConfig = createConfig("sub${JOB_NAME}1, sub${JOB_NAME}2");
+        addParameterizedTrigger(masterProject, masterConfig);
+        Project subProject1 = r.createFreeStyleProject("subproject1");
+        subProject1.setQuietPeriod(0);
+
+        r.jenkins.rebuildDependencyGraph();
+        masterProject.scheduleBuild2(0, new UserIdCause()).get();
+        masterProject.getLastBuild().delete();
+
+        // Expects 1 dynamic and 1 unresolved project
+        validateOutcome(masterProject, masterConfig, 0, 1, 0, 1);
+    }
+
     /**
      * Testing fixed (statically) defined projects
      *
@@ -289,6 +309,25 @@ class BuildTriggerConfigTest {
         validateOutcome(masterProject, masterConfig, 1, 1, 0, 0);
     }
 
+    @Test
+    void testDependencyGraphFollowsJobChanges(JenkinsRule r) throws Exception {
+        Project<?, ?> masterProject = r.createFreeStyleProject("project");
+        addParameterizedTrigger(masterProject, createConfig("subproject1, subproject2"));
+        Project<?, ?> subProject1 = r.createFreeStyleProject("subproject1");
+
+        r.jenkins.rebuildDependencyGraph();
+        assertEquals(List.of(subProject1), masterProject.getDownstreamProjects());
+
+        // resolved again once jobs are created or deleted
+        Project<?, ?> subProject2 = r.createFreeStyleProject("subproject2");
+        r.jenkins.rebuildDependencyGraph();
+        assertEquals(Set.of(subProject1, subProject2), new HashSet<>(masterProject.getDownstreamProjects()));
+
+        subProject1.delete();
+        r.jenkins.rebuildDependencyGraph();
+        assertEquals(List.of(subProject2), masterProject.getDownstreamProjects());
+    }
+
     /**
      * Testing triggered projects
      *
@@ -375,6 +414,12 @@ class BuildTriggerConfigTest {
         assertSame(FormValidation.Kind.OK, descriptor.doCheckProjects(p, p.getFullName()).kind);
         assertSame(FormValidation.Kind.ERROR, descriptor.doCheckProjects(p, "FOO").kind);
         assertSame(FormValidation.Kind.ERROR, descriptor.doCheckProjects(p, "").kind);
+        // Suggests the nearest project
+        String message = descriptor.doCheckProjects(p, "projetc").getMessage();
+        assertTrue(message.contains("project"), message);
+        r.createFreeStyleProject("projetcs");
+        message = descriptor.doCheckProjects(p, "projetc").getMessage();
+        assertTrue(message.contains("projetcs"), message);
         // JENKINS-32526: Check that it behaves gracefully for an unknown context.
         assertSame(FormValidation.Kind.OK, descriptor.doCheckProjects(null, p.getFullName()).kind);
         assertSame(FormValidation.Kind.OK, descriptor.doCheckProjects(null, "FOO").kind);
@@ -402,4 +447,48 @@ class BuildTriggerConfigTest {
         auth.grant(Item.BUILD).onItems(other).to("alice");
         assertSame(FormValidation.Kind.OK, descriptor.doCheckProjects(p, "other").kind);
     }
+
+    @Test
+    void testAutoCompleteProjects(JenkinsRule r) throws Exception {
+        MockFolder folder = r.createFolder("folder");
+        folder.createProject(FreeStyleProject.class, "project1");
+        folder.createProject(FreeStyleProject.class, "other");
+        FreeStyleProject project2 = r.createFreeStyleProject("project2");
+        BuildTriggerConfig.DescriptorImpl descriptor =
+                r.jenkins.getDescriptorByType(BuildTriggerConfig.DescriptorImpl.class);
+
+        assertEquals(List.of("project1"), descriptor.doAutoCompleteProjects("pro", folder).getValues());
+        assertEquals(List.of("../project2"), descriptor.doAutoCompleteProjects("..", folder).getValues());
+        assertEquals(List.of("folder/project1"), descriptor.doAutoCompleteProjects("folder/p", r.jenkins).getValues());
+
+        // the names are kept up to date
+        project2.renameTo("project3");
+        assertEquals(List.of("../project3"), descriptor.doAutoCompleteProjects("../pro", folder).getValues());
+    }
+
+    @Test
+    void testAutoCompleteProjectsOutsideFolder(JenkinsRule r) throws Exception {
+        MockFolder folder = r.createFolder("folder");
+        MockFolder subfolder = folder.createProject(MockFolder.class, "subfolder");
+        subfolder.createProject(FreeStyleProject.class, "inner");
+        folder.createProject(FreeStyleProject.class, "sibling");
+        r.createFolder("other").createProject(FreeStyleProject.class, "elsewhere");
+        r.createFreeStyleProject("top");
+        BuildTriggerConfig.DescriptorImpl descriptor =
+                r.jenkins.getDescriptorByType(BuildTriggerConfig.DescriptorImpl.class);
+
+        // the relative names of all the jobs, in the order of their full names
+        assertEquals(
+                List.of("../sibling", "inner", "../../other/elsewhere", "../../top"),
+                descriptor.doAutoCompleteProjects("", subfolder).getValues());
+        assertEquals(
+                List.of("../sibling", "../../other/elsewhere", "../../top"),
+                descriptor.doAutoCompleteProjects("../", subfolder).getValues());
+        assertEquals(
+                List.of("../../other/elsewhere", "../../top"),
+                descriptor.doAutoCompleteProjects("../..", subfolder).getValues());
+        assertEquals(
+                List.of("../../other/elsewhere"), descriptor.doAutoCompleteProjects("../../o", subfolder).getValues());
+        assertEquals(List.of("../sibling"), descriptor.doAutoCompleteProjects("../s", subfolder).getValues());
+    }
 }
@@ -1,7 +1,10 @@
 package hudson.plugins.parameterizedtrigger.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import hudson.AbortException;
 import hudson.FilePath;
@@ -19,13 +22,19 @@ import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
 import hudson.model.ParameterDefinition;
 import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Queue;
 import hudson.model.StringParameterDefinition;
 import hudson.plugins.parameterizedtrigger.AbstractBuildParameters;
 import hudson.plugins.parameterizedtrigger.BuildTrigger;
 import hudson.plugins.parameterizedtrigger.BuildTriggerConfig;
 import hudson.plugins.parameterizedtrigger.CurrentBuildParameters;
 import hudson.plugins.parameterizedtrigger.FileBuildParameters;
+import hudson.plugins.parameterizedtrigger.ParameterizedDependency;
+import hudson.plugins.parameterizedtrigger.PredefinedBuildParameters;
 import hudson.plugins.parameterizedtrigger.ResultCondition;
+import hudson.plugins.parameterizedtrigger.SupersedableTriggerAction;
+import hudson.plugins.parameterizedtrigger.matrix.MatrixSubsetAction;
+import hudson.plugins.parameterizedtrigger.matrix.MatrixSubsetBuildParameters;
 import hudson.tasks.Builder;
 import java.io.IOException;
 import java.io.Serializable;
@@ -117,6 +126,96 @@ class BuildTriggerTest {
         assertEquals(configurations.get(1).getFullName(), project2, "Build should be triggered by matrix project.");
     }
 
+    @Test
+    void testSameDownstreamFromTwoConfigs(JenkinsRule r) throws Exception {
+        FreeStyleProject upstream = r.createFreeStyleProject("upstream");
+        FreeStyleProject other = r.createFreeStyleProject("other");
+        FreeStyleProject downstream = r.createFreeStyleProject("downstream");
+        downstream.setQuietPeriod(0);
+        List<ParameterDefinition> definition = new ArrayList<>();
+        definition.add(new StringParameterDefinition("KEY", "key"));
+        downstream.addProperty(new ParametersDefinitionProperty(definition));
+        BuildTriggerConfig first = new BuildTriggerConfig(
+                "downstream", ResultCondition.SUCCESS, new PredefinedBuildParameters("KEY=first"));
+        BuildTriggerConfig second = new BuildTriggerConfig(
+                "downstream", ResultCondition.SUCCESS, new PredefinedBuildParameters("KEY=second"));
+
+        // dependencies are only equal when they share the upstream, the downstream and the config
+        assertEquals(
+                new ParameterizedDependency(upstream, downstream, first),
+                new ParameterizedDependency(upstream, downstream, first));
+        assertNotEquals(
+                new ParameterizedDependency(upstream, downstream, first),
+                new ParameterizedDependency(upstream, downstream, second));
+        assertNotEquals(
+                new ParameterizedDependency(upstream, downstream, first),
+                new ParameterizedDependency(other, downstream, first));
+        assertNotEquals(
+                new ParameterizedDependency(upstream, downstream, first),
+                new ParameterizedDependency(upstream, other, first));
+
+        upstream.getPublishersList().add(new BuildTrigger(first, second));
+        r.jenkins.rebuildDependencyGraph();
+
+        r.buildAndAssertSuccess(upstream);
+        r.waitUntilNoActivity();
+
+        assertEquals(2, downstream.getBuilds().size(), "Both configs should trigger the downstream job");
+    }
+
+    @Test
+    void testSupersedeQueuedBuilds(JenkinsRule r) throws Exception {
+        FreeStyleProject upstream = r.createFreeStyleProject("upstream");
+        FreeStyleProject downstream = r.createFreeStyleProject("downstream");
+        // keep the triggered builds in the queue
+        downstream.setQuietPeriod(1000);
+        List<ParameterDefinition> definition = new ArrayList<>();
+        definition.add(new StringParameterDefinition("UPSTREAM_BUILD", ""));
+        downstream.addProperty(new ParametersDefinitionProperty(definition));
+        BuildTriggerConfig config = new BuildTriggerConfig(
+                "downstream", ResultCondition.SUCCESS, new PredefinedBuildParameters("UPSTREAM_BUILD=$BUILD_NUMBER"));
+        config.setSupersedeQueuedBuilds(true);
+        upstream.getPublishersList().add(new BuildTrigger(config));
+        r.jenkins.rebuildDependencyGraph();
+
+        r.buildAndAssertSuccess(upstream);
+        assertEquals(1, r.jenkins.getQueue().getItems(downstream).size());
+        r.buildAndAssertSuccess(upstream);
+
+        List<Queue.Item> items = r.jenkins.getQueue().getItems(downstream);
+        assertEquals(1, items.size(), "The build triggered by upstream #1 should be cancelled");
+        assertEquals(2, items.get(0).getAction(SupersedableTriggerAction.class).getUpstreamBuild());
+    }
+
+    @Test
+    void testMatrixSubsetForTwoMatrixProjects(JenkinsRule r) throws Exception {
+        FreeStyleProject upstream = r.createFreeStyleProject("upstream");
+        MatrixProject matrix1 = r.createProject(MatrixProject.class, "matrix1");
+        matrix1.setAxes(new AxisList(new TextAxis("x", "a", "b")));
+        // same combinations, with other indices
+        MatrixProject matrix2 = r.createProject(MatrixProject.class, "matrix2");
+        matrix2.setAxes(new AxisList(new TextAxis("x", "b", "a")));
+        upstream.getPublishersList()
+                .add(new BuildTrigger(new BuildTriggerConfig(
+                        "matrix1, matrix2",
+                        ResultCondition.SUCCESS,
+                        new MatrixSubsetBuildParameters("x == \"a\""))));
+        r.jenkins.rebuildDependencyGraph();
+
+        r.buildAndAssertSuccess(upstream);
+        r.waitUntilNoActivity();
+
+        MatrixSubsetAction action1 = matrix1.getLastBuild().getAction(MatrixSubsetAction.class);
+        MatrixSubsetAction action2 = matrix2.getLastBuild().getAction(MatrixSubsetAction.class);
+        assertNotNull(action1);
+        assertNotNull(action2);
+        assertNotSame(action1, action2, "each downstream build should get its own action");
+        for (MatrixProject p : List.of(matrix1, matrix2)) {
+            assertNotNull(p.getItem("x=a").getLastBuild(), p.getName() + " should build x=a");
+            assertNull(p.getItem("x=b").getLastBuild(), p.getName() + " should not build x=b");
+        }
+    }
+
     public static class MatrixConfigurationSorterTestImpl extends MatrixConfigurationSorter implements Serializable {
 
         @Override
@@ -0,0 +1,69 @@
+package hudson.plugins.parameterizedtrigger.test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.matrix.Combination;
+import hudson.plugins.parameterizedtrigger.matrix.CombinationExpression;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CombinationExpressionTest {
+
+    private static final Combination COMBINATION =
+            new Combination(Map.of("os", "linux", "jdk", "17", "label", "build-arm64"));
+
+    private static boolean matches(String expression) {
+        return CombinationExpression.parse(expression).matches(COMBINATION);
+    }
+
+    @Test
+    void testComparison() {
+        assertTrue(matches("os == linux"));
+        assertTrue(matches("os==\"linux\""));
+        assertFalse(matches("os == windows"));
+        assertTrue(matches("os != windows"));
+        assertFalse(matches("unknown == linux"));
+        assertTrue(matches("unknown != linux"));
+    }
+
+    @Test
+    void testSets() {
+        assertTrue(matches("jdk in [17, 21]"));
+        assertFalse(matches("jdk in [11, 21]"));
+        assertTrue(matches("jdk not in [11, 21]"));
+    }
+
+    @Test
+    void testGlobs() {
+        assertTrue(matches("label == '*-arm64'"));
+        assertTrue(matches("os == lin?x"));
+        assertFalse(matches("label == '*-amd64'"));
+        assertTrue(matches("label in [\"*-amd64\", \"build-*\"]"));
+    }
+
+    @Test
+    void testBooleanOperators() {
+        assertTrue(matches("os == linux && jdk == 17"));
+        assertTrue(matches("os == linux and jdk == 17"));
+        assertFalse(matches("os == windows || jdk == 21"));
+        assertTrue(matches("os == windows or jdk == 17"));
+        assertTrue(matches("!(os == windows)"));
+        assertTrue(matches("not os == windows"));
+        assertTrue(matches("os == windows || os == linux && jdk == 17"));
+        assertFalse(matches("(os == windows || os == linux) && jdk == 21"));
+        assertTrue(matches("true"));
+        assertFalse(matches("false"));
+    }
+
+    @Test
+    void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> CombinationExpression.parse("os =="));
+        assertThrows(IllegalArgumentException.class, () -> CombinationExpression.parse("os = linux"));
+        assertThrows(IllegalArgumentException.class, () -> CombinationExpression.parse("(os == linux"));
+        assertThrows(IllegalArgumentException.class, () -> CombinationExpression.parse("os in linux"));
+        assertThrows(IllegalArgumentException.class, () -> CombinationExpression.parse("os == linux jdk"));
+        assertThrows(IllegalArgumentException.class, () -> CombinationExpression.parse("os == \"linux"));
+    }
+}
@@ -0,0 +1,86 @@
+package hudson.plugins.parameterizedtrigger.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import hudson.matrix.AxisList;
+import hudson.matrix.Combination;
+import hudson.matrix.TextAxis;
+import hudson.plugins.parameterizedtrigger.matrix.CombinationFilterCache;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.RejectedAccessException;
+import org.jenkinsci.plugins.scriptsecurity.scripts.ScriptApproval;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class CombinationFilterCacheTest {
+
+    @Test
+    void testEvaluate(JenkinsRule r) {
+        AxisList axes = new AxisList(new TextAxis("os", "linux", "windows"), new TextAxis("jdk", "17", "21"));
+        Combination linux17 = new Combination(Map.of("os", "linux", "jdk", "17"));
+        Combination windows21 = new Combination(Map.of("os", "windows", "jdk", "21"));
+
+        assertTrue(CombinationFilterCache.evaluate(linux17, axes, null));
+        assertTrue(CombinationFilterCache.evaluate(linux17, axes, "  "));
+
+        // evaluated twice to exercise the cached script
+        for (int i = 0; i < 2; i++) {
+            assertTrue(CombinationFilterCache.evaluate(linux17, axes, "os == \"linux\""));
+            assertFalse(CombinationFilterCache.evaluate(windows21, axes, "os == \"linux\""));
+            assertTrue(CombinationFilterCache.evaluate(windows21, axes, "os != \"linux\" && jdk == \"21\""));
+        }
+    }
+
+    @Test
+    void testImplies(JenkinsRule r) {
+        AxisList axes = new AxisList(new TextAxis("os", "linux", "windows"), new TextAxis("jdk", "17", "21"));
+        String filter = "(os == \"windows\").implies(jdk == \"21\")";
+
+        assertTrue(CombinationFilterCache.evaluate(new Combination(Map.of("os", "linux", "jdk", "17")), axes, filter));
+        assertFalse(
+                CombinationFilterCache.evaluate(new Combination(Map.of("os", "windows", "jdk", "17")), axes, filter));
+        assertTrue(
+                CombinationFilterCache.evaluate(new Combination(Map.of("os", "windows", "jdk", "21")), axes, filter));
+    }
+
+    @Test
+    void testNonBooleanResult(JenkinsRule r) {
+        AxisList axes = new AxisList(new TextAxis("os", "linux", "windows"));
+        Combination linux = new Combination(Map.of("os", "linux"));
+
+        // like matrix-project, only a Boolean true accepts the combination, not Groovy truth
+        assertFalse(CombinationFilterCache.evaluate(linux, axes, "os"));
+    }
+
+    @Test
+    void testSandboxed(JenkinsRule r) {
+        AxisList axes = new AxisList(new TextAxis("os", "linux", "windows"));
+        Combination linux = new Combination(Map.of("os", "linux"));
+
+        assertThrows(
+                RejectedAccessException.class,
+                () -> CombinationFilterCache.evaluate(linux, axes, "jenkins.model.Jenkins.get() != null"));
+    }
+
+    @Test
+    void testRejectedSignaturePendingApproval(JenkinsRule r) {
+        AxisList axes = new AxisList(new TextAxis("os", "linux", "windows"));
+        Combination linux = new Combination(Map.of("os", "linux"));
+
+        assertThrows(
+                RejectedAccessException.class,
+                () -> CombinationFilterCache.evaluate(linux, axes, "System.getProperty(\"os.name\") != null"));
+
+        Set<String> pending = ScriptApproval.get().getPendingSignatures().stream()
+                .map(s -> s.signature)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("staticMethod java.lang.System getProperty java.lang.String"), pending);
+    }
+}
@@ -43,10 +43,12 @@ class DontBuildTest {
 
     public static final class DontBuildTrigger extends AbstractBuildParameters {
         boolean called = false;
+        int calls = 0;
 
         @Override
         public Action getAction(AbstractBuild<?, ?> build, TaskListener listener) throws DontTriggerException {
             called = true;
+            calls++;
             throw new DontTriggerException();
         }
     }
@@ -69,4 +71,26 @@ class DontBuildTest {
         assertEquals(0, projectB.getBuilds().size());
         assertTrue(dbt.called, "trigger was not called");
     }
+
+    @Test
+    void testParametersComputedOncePerConfig(JenkinsRule r) throws Exception {
+
+        Project projectA = r.createFreeStyleProject("projectA");
+        DontBuildTrigger dbt = new DontBuildTrigger();
+        projectA.getPublishersList()
+                .add(new BuildTrigger(new BuildTriggerConfig("projectB, projectC", ResultCondition.SUCCESS, dbt)));
+
+        Project projectB = r.createFreeStyleProject("projectB");
+        projectB.setQuietPeriod(0);
+        Project projectC = r.createFreeStyleProject("projectC");
+        projectC.setQuietPeriod(0);
+        r.jenkins.rebuildDependencyGraph();
+
+        projectA.scheduleBuild2(0).get();
+        Thread.sleep(1000);
+
+        assertEquals(0, projectB.getBuilds().size());
+        assertEquals(0, projectC.getBuilds().size());
+        assertEquals(1, dbt.calls, "parameters should be computed once for both projects");
+    }
 }
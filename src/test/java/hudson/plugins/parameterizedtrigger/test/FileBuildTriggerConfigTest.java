@@ -31,6 +31,7 @@ import hudson.matrix.AxisList;
 import hudson.matrix.LabelAxis;
 import hudson.matrix.MatrixBuild;
 import hudson.matrix.MatrixProject;
+import hudson.matrix.MatrixRun;
 import hudson.matrix.TextAxis;
 import hudson.model.AbstractBuild;
 import hudson.model.BuildListener;
@@ -44,11 +45,13 @@ import hudson.model.ParametersDefinitionProperty;
 import hudson.model.Project;
 import hudson.model.StringParameterDefinition;
 import hudson.model.StringParameterValue;
+import hudson.model.TaskListener;
 import hudson.model.labels.LabelExpression;
 import hudson.plugins.parameterizedtrigger.BlockableBuildTriggerConfig;
 import hudson.plugins.parameterizedtrigger.BuildTrigger;
 import hudson.plugins.parameterizedtrigger.BuildTriggerConfig;
 import hudson.plugins.parameterizedtrigger.FileBuildParameters;
+import hudson.plugins.parameterizedtrigger.ParameterizedTriggerUtils;
 import hudson.plugins.parameterizedtrigger.ResultCondition;
 import hudson.plugins.parameterizedtrigger.TriggerBuilder;
 import hudson.tasks.ArtifactArchiver;
@@ -61,6 +64,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.CaptureEnvironmentBuilder;
@@ -68,6 +72,7 @@ import org.jvnet.hudson.test.ExtractResourceSCM;
 import org.jvnet.hudson.test.Issue;
 import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.SingleFileSCM;
+import org.jvnet.hudson.test.TestBuilder;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 
 @WithJenkins
@@ -910,4 +915,56 @@ class FileBuildTriggerConfigTest {
         assertNotNull(build);
         assertEquals("value1", getStringParameterValue(build, "absolute_param"));
     }
+
+    @Test
+    void testMatrixBuildsKeepChildOrder(JenkinsRule r) throws Exception {
+        MatrixProject upstream = r.createProject(MatrixProject.class);
+        upstream.setAxes(new AxisList(new TextAxis("childname", "child1", "child2", "child3", "child4", "child5")));
+        upstream.getBuildersList().add(new WriteFileBuilder("properties.txt", "shared=${childname}"));
+        MatrixBuild build = r.buildAndAssertSuccess(upstream);
+
+        // what reading the children one after the other gives
+        List<String> expected = new ArrayList<>();
+        for (MatrixRun run : build.getRuns()) {
+            expected.add(run.getBuildVariables().get("childname"));
+        }
+
+        FileBuildParameters params = new FileBuildParameters("properties.txt", null, false, true, null, false);
+        ParametersAction action = (ParametersAction) params.getAction(build, TaskListener.NULL);
+        List<String> actual = new ArrayList<>();
+        for (ParameterValue v : action.getParameters()) {
+            assertEquals("shared", v.getName());
+            actual.add(((StringParameterValue) v).value);
+        }
+        assertEquals(expected, actual);
+
+        // the last child wins when the values are merged into the triggered build
+        ParametersAction merged = ParameterizedTriggerUtils.mergeParameters(new ParametersAction(), action);
+        assertEquals(expected.get(expected.size() - 1), ((StringParameterValue) merged.getParameter("shared")).value);
+    }
+
+    @Test
+    void testMatrixBuildsFailOnUnreadableChild(JenkinsRule r) throws Exception {
+        MatrixProject upstream = r.createProject(MatrixProject.class);
+        upstream.setAxes(new AxisList(new TextAxis("childname", "child1", "child2", "child3")));
+        upstream.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                    throws IOException, InterruptedException {
+                String childname = build.getBuildVariables().get("childname");
+                if ("child2".equals(childname)) {
+                    // exists but cannot be read as a file
+                    build.getWorkspace().child("properties.txt").mkdirs();
+                } else {
+                    build.getWorkspace().child("properties.txt").write("triggered_" + childname + "=true", "UTF-8");
+                }
+                return true;
+            }
+        });
+        MatrixBuild build = r.buildAndAssertSuccess(upstream);
+
+        FileBuildParameters params = new FileBuildParameters("properties.txt", null, false, true, null, false);
+        IOException e = assertThrows(IOException.class, () -> params.getAction(build, TaskListener.NULL));
+        assertFalse(e.getCause() instanceof ExecutionException, "should not be wrapped: " + e);
+    }
 }
@@ -25,6 +25,7 @@ package hudson.plugins.parameterizedtrigger.test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import hudson.EnvVars;
 import hudson.model.FreeStyleBuild;
 import hudson.model.ParameterDefinition;
 import hudson.model.ParametersAction;
@@ -36,10 +37,12 @@ import hudson.model.StringParameterDefinition;
 import hudson.model.StringParameterValue;
 import hudson.plugins.parameterizedtrigger.BuildTrigger;
 import hudson.plugins.parameterizedtrigger.BuildTriggerConfig;
+import hudson.plugins.parameterizedtrigger.CapturedEnvironmentAction;
 import hudson.plugins.parameterizedtrigger.PredefinedBuildParameters;
 import hudson.plugins.parameterizedtrigger.ResultCondition;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.CaptureEnvironmentBuilder;
 import org.jvnet.hudson.test.Issue;
@@ -74,6 +77,32 @@ class PredefinedPropertiesBuildTriggerConfigTest {
         assertEquals("value", builder.getEnvVars().get("KEY"));
     }
 
+    @Test
+    void testCapturesReferencedVariablesOnly(JenkinsRule r) throws Exception {
+        Project projectA = r.createFreeStyleProject("projectA");
+        projectA.getPublishersList()
+                .add(new BuildTrigger(new BuildTriggerConfig(
+                        "projectB",
+                        ResultCondition.SUCCESS,
+                        new PredefinedBuildParameters("KEY=${JOB_NAME}-$BUILD_NUMBER"))));
+
+        CaptureEnvironmentBuilder builder = new CaptureEnvironmentBuilder();
+        Project projectB = r.createFreeStyleProject("projectB");
+        projectB.getBuildersList().add(builder);
+        projectB.setQuietPeriod(1);
+        List<ParameterDefinition> definition = new ArrayList<>();
+        definition.add(new StringParameterDefinition("KEY", "key"));
+        projectB.addProperty(new ParametersDefinitionProperty(definition));
+        r.jenkins.rebuildDependencyGraph();
+
+        FreeStyleBuild build = (FreeStyleBuild) projectA.scheduleBuild2(0).get();
+        r.jenkins.getQueue().getItem(projectB).getFuture().get();
+
+        assertEquals("projectA-1", builder.getEnvVars().get("KEY"));
+        EnvVars captured = build.getAction(CapturedEnvironmentAction.class).getCapturedEnvironment();
+        assertEquals(Set.of("JOB_NAME", "BUILD_NUMBER"), captured.keySet());
+    }
+
     @Test
     void testNonAscii(JenkinsRule r) throws Exception {
         Project projectA = r.createFreeStyleProject("projectA");
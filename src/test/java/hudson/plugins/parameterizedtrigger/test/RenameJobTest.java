@@ -25,22 +25,30 @@ package hudson.plugins.parameterizedtrigger.test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import hudson.ExtensionList;
+import hudson.XmlFile;
 import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
+import hudson.model.Item;
 import hudson.model.Project;
+import hudson.model.Saveable;
 import hudson.model.TopLevelItem;
 import hudson.model.TopLevelItemDescriptor;
+import hudson.model.listeners.SaveableListener;
 import hudson.plugins.parameterizedtrigger.AbstractBuildParameters;
 import hudson.plugins.parameterizedtrigger.BlockableBuildTriggerConfig;
 import hudson.plugins.parameterizedtrigger.BuildTrigger;
 import hudson.plugins.parameterizedtrigger.BuildTriggerConfig;
 import hudson.plugins.parameterizedtrigger.CurrentBuildParameters;
+import hudson.plugins.parameterizedtrigger.PendingProjectSaves;
 import hudson.plugins.parameterizedtrigger.ResultCondition;
 import hudson.plugins.parameterizedtrigger.TriggerBuilder;
 import hudson.tasks.BuildStep;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import jenkins.model.ModifiableTopLevelItemGroup;
 import org.jenkins_ci.plugins.run_condition.BuildStepRunner;
@@ -50,6 +58,7 @@ import org.jenkinsci.plugins.conditionalbuildstep.singlestep.SingleConditionalBu
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.MockFolder;
+import org.jvnet.hudson.test.TestExtension;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 
 @WithJenkins
@@ -94,6 +103,86 @@ class RenameJobTest {
         assertTriggering(projectA, "projectC");
     }
 
+    @Test
+    void testRenameJobConfiguredAfterFirstRename(JenkinsRule r) throws Exception {
+        Project<?, ?> projectA = r.createFreeStyleProject("projectA");
+        configureTriggeringOf(projectA, "projectB");
+        Project<?, ?> projectB = r.createFreeStyleProject("projectB");
+        Project<?, ?> projectC = r.createFreeStyleProject("projectC");
+
+        // the first rename indexes the triggers, later ones rely on the index being kept up to date
+        projectB.renameTo("projectB-renamed");
+        assertTriggering(projectA, "projectB-renamed");
+
+        Project<?, ?> projectD = r.createFreeStyleProject("projectD");
+        configureTriggeringOf(projectD, "projectC");
+        projectC.renameTo("projectC-renamed");
+        assertTriggering(projectD, "projectC-renamed");
+        assertTriggering(projectA, "projectB-renamed");
+
+        projectA.delete();
+        projectB.renameTo("projectB-again");
+        assertTriggering(projectD, "projectC-renamed");
+    }
+
+    @Test
+    void testRenamesSavedOnce(JenkinsRule r) throws Exception {
+        Project<?, ?> projectA = r.createFreeStyleProject("projectA");
+        configureTriggeringOf(projectA, "projectB,projectC");
+        Project<?, ?> projectB = r.createFreeStyleProject("projectB");
+        Project<?, ?> projectC = r.createFreeStyleProject("projectC");
+
+        CountSaves saves = ExtensionList.lookupSingleton(CountSaves.class);
+        saves.counts.clear();
+
+        // only the explicit flush below saves, however slow the renames are
+        long delay = PendingProjectSaves.DELAY;
+        PendingProjectSaves.DELAY = TimeUnit.HOURS.toMillis(1);
+        try {
+            projectB.renameTo("projectB-renamed");
+            projectC.renameTo("projectC-renamed");
+            assertTriggering(projectA, "projectB-renamed,projectC-renamed");
+            assertNull(saves.counts.get("projectA"));
+
+            PendingProjectSaves.get().flush();
+        } finally {
+            PendingProjectSaves.DELAY = delay;
+        }
+        String config = projectA.getConfigFile().asString();
+        assertTrue(config.contains("projectB-renamed,projectC-renamed"), config);
+        assertEquals(1, saves.counts.get("projectA"));
+    }
+
+    @Test
+    void testDeletedProjectsNotSaved(JenkinsRule r) throws Exception {
+        Project<?, ?> projectA = r.createFreeStyleProject("projectA");
+        configureTriggeringOf(projectA, "projectB");
+        MockFolder folder = r.createFolder("folder");
+        Project<?, ?> projectC = folder.createProject(FreeStyleProject.class, "projectC");
+        configureTriggeringOf(projectC, "projectB");
+        Project<?, ?> projectB = r.createFreeStyleProject("projectB");
+
+        projectB.renameTo("projectB-renamed");
+        projectA.delete();
+        folder.delete();
+        PendingProjectSaves.get().flush();
+
+        assertFalse(projectA.getRootDir().exists(), "deleted project should not be saved again");
+        assertFalse(folder.getRootDir().exists(), "project in a deleted folder should not be saved again");
+    }
+
+    @TestExtension("testRenamesSavedOnce")
+    public static class CountSaves extends SaveableListener {
+        final Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof Item) {
+                counts.merge(((Item) o).getFullName(), 1, Integer::sum);
+            }
+        }
+    }
+
     /**
      * Configure all the triggers to point to a set of child jobs.
      *
@@ -44,7 +44,12 @@ import hudson.plugins.parameterizedtrigger.AbstractBuildParameters;
 import hudson.plugins.parameterizedtrigger.BlockableBuildTriggerConfig;
 import hudson.plugins.parameterizedtrigger.BlockingBehaviour;
 import hudson.plugins.parameterizedtrigger.CounterBuildParameterFactory;
+import hudson.plugins.parameterizedtrigger.PredefinedBuildParameters;
+import hudson.plugins.parameterizedtrigger.SubProjectData;
+import hudson.plugins.parameterizedtrigger.SubProjectsAction;
+import hudson.plugins.parameterizedtrigger.SupersedableTriggerAction;
 import hudson.plugins.parameterizedtrigger.TriggerBuilder;
+import hudson.plugins.parameterizedtrigger.matrix.MatrixSubsetBuildParameters;
 import hudson.plugins.promoted_builds.PromotionProcess;
 import hudson.plugins.promoted_builds.conditions.DownstreamPassCondition;
 import java.io.IOException;
@@ -567,6 +572,125 @@ class TriggerBuilderTest {
         assertEquals(1, triggeredProject.getBuilds().toArray().length);
     }
 
+    @Test
+    void testBlockingTriggerReusesQueuedBuild(JenkinsRule r) throws Exception {
+        Project<?, ?> triggerProject = r.createFreeStyleProject("projectA");
+        Project<?, ?> triggeredProject = r.createFreeStyleProject("project1");
+        triggeredProject.addProperty(
+                new ParametersDefinitionProperty(new StringParameterDefinition("KEY", "default")));
+
+        BlockableBuildTriggerConfig config = new BlockableBuildTriggerConfig(
+                "project1",
+                new BlockingBehaviour("never", "never", "never"),
+                null,
+                List.of(new PredefinedBuildParameters("KEY=value")));
+        config.setReuseQueuedBuild(true);
+        triggerProject.getBuildersList().add(new TriggerBuilder(config));
+
+        // an identical build waiting in the queue
+        triggeredProject.scheduleBuild2(
+                1000, new UserIdCause(), new ParametersAction(new StringParameterValue("KEY", "value")));
+
+        r.buildAndAssertSuccess(triggerProject);
+        r.waitUntilNoActivity();
+
+        assertEquals(1, triggeredProject.getBuilds().size());
+        assertNotNull(triggeredProject.getLastBuild().getCause(UpstreamCause.class));
+    }
+
+    @Test
+    void testBlockingTriggerSupersedesQueuedBuild(JenkinsRule r) throws Exception {
+        r.jenkins.setNumExecutors(2);
+        FreeStyleProject downstream = r.createFreeStyleProject("downstream");
+        downstream.addProperty(
+                new ParametersDefinitionProperty(new StringParameterDefinition("UPSTREAM_BUILD", "")));
+        // keep the triggered builds in the queue
+        downstream.setAssignedLabel(r.jenkins.getLabel("later"));
+
+        FreeStyleProject upstream = r.createFreeStyleProject("upstream");
+        upstream.setConcurrentBuild(true);
+        BlockableBuildTriggerConfig config = new BlockableBuildTriggerConfig(
+                "downstream",
+                new BlockingBehaviour("never", "never", "never"),
+                List.of(new PredefinedBuildParameters("UPSTREAM_BUILD=$BUILD_NUMBER")));
+        config.setSupersedeQueuedBuilds(true);
+        upstream.getBuildersList().add(new TriggerBuilder(config));
+
+        QueueTaskFuture<FreeStyleBuild> first = upstream.scheduleBuild2(0);
+        while (r.jenkins.getQueue().getItems(downstream).isEmpty()) {
+            Thread.sleep(100);
+        }
+        QueueTaskFuture<FreeStyleBuild> second = upstream.scheduleBuild2(0);
+
+        // the older blocking trigger is aborted once the build it waits for is cancelled
+        FreeStyleBuild firstBuild = first.get();
+        r.assertBuildStatus(Result.FAILURE, firstBuild);
+        r.assertLogContains("downstream aborted.", firstBuild);
+
+        List<Queue.Item> items = r.jenkins.getQueue().getItems(downstream);
+        assertEquals(1, items.size(), "The build triggered by upstream #1 should be cancelled");
+        assertEquals(2, items.get(0).getAction(SupersedableTriggerAction.class).getUpstreamBuild());
+
+        downstream.setAssignedLabel(null);
+        r.jenkins.getQueue().scheduleMaintenance();
+        FreeStyleBuild secondBuild = r.assertBuildStatusSuccess(second);
+        r.assertLogContains("Cancelled the queued build of", secondBuild);
+
+        assertEquals(1, downstream.getBuilds().size());
+        StringParameterValue value = (StringParameterValue)
+                downstream.getLastBuild().getAction(ParametersAction.class).getParameter("UPSTREAM_BUILD");
+        assertEquals("2", value.getValue());
+    }
+
+    @Test
+    void testMatrixSubsetForTwoMatrixProjects(JenkinsRule r) throws Exception {
+        Project<?, ?> triggerProject = r.createFreeStyleProject("projectA");
+        MatrixProject matrix1 = r.createProject(MatrixProject.class, "matrix1");
+        matrix1.setAxes(new AxisList(new TextAxis("x", "a", "b")));
+        // same combinations, with other indices
+        MatrixProject matrix2 = r.createProject(MatrixProject.class, "matrix2");
+        matrix2.setAxes(new AxisList(new TextAxis("x", "b", "a")));
+
+        BlockableBuildTriggerConfig config = new BlockableBuildTriggerConfig(
+                "matrix1, matrix2",
+                new BlockingBehaviour("never", "never", "never"),
+                List.of(new MatrixSubsetBuildParameters("x == \"a\"")));
+        triggerProject.getBuildersList().add(new TriggerBuilder(config));
+
+        r.buildAndAssertSuccess(triggerProject);
+        r.waitUntilNoActivity();
+
+        for (MatrixProject p : List.of(matrix1, matrix2)) {
+            assertNotNull(p.getItem("x=a").getLastBuild(), p.getName() + " should build x=a");
+            assertNull(p.getItem("x=b").getLastBuild(), p.getName() + " should not build x=b");
+        }
+    }
+
+    @Test
+    void testSubProjectsInfoComputedAgainWhenJobsChange(JenkinsRule r) throws Exception {
+        Project<?, ?> triggerProject = r.createFreeStyleProject("projectA");
+        r.createFreeStyleProject("project1");
+        BlockableBuildTriggerConfig config = new BlockableBuildTriggerConfig("project1, project2", null, null);
+        triggerProject.getBuildersList().add(new TriggerBuilder(config));
+
+        SubProjectsAction action = triggerProject.getAction(SubProjectsAction.class);
+        SubProjectData data = action.getProjectInfo(config);
+        assertSame(data, action.getProjectInfo(config));
+        assertEquals(Collections.singleton("project2"), data.getUnresolved());
+
+        r.createFreeStyleProject("project2");
+        data = action.getProjectInfo(config);
+        assertTrue(data.getUnresolved().isEmpty());
+        assertEquals(2, data.getFixed().size());
+        assertSame(data, action.getProjectInfo(config));
+
+        r.buildAndAssertSuccess(triggerProject);
+        r.waitUntilNoActivity();
+        SubProjectData afterBuild = action.getProjectInfo(config);
+        assertNotSame(data, afterBuild);
+        assertSame(afterBuild, action.getProjectInfo(config));
+    }
+
     private static void assertLines(Run<?, ?> build, String... lines) throws IOException {
         List<String> log = build.getLog(Integer.MAX_VALUE);
         List<String> rest = log;